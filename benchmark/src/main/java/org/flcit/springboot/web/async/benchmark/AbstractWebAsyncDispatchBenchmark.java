@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import org.flcit.commons.core.functional.callable.CallableThrowable;
+import org.flcit.springboot.web.async.annotation.aspect.AspectWebAsync;
+import org.flcit.springboot.web.async.annotation.aspect.WebAsyncDispatchPlan;
+import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+import org.flcit.springboot.web.async.util.WebAsyncTaskUtils;
+
+/**
+ * Chemin de dispatch @WebAsync / WebAsyncTaskService comparé à un appel synchrone.
+ * Les sous-classes fixent le nombre de threads.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractWebAsyncDispatchBenchmark {
+
+    private static final Long TIMEOUT = 60000L;
+
+    private final WebAsyncTaskService webAsyncTaskService = new WebAsyncTaskService();
+    private final Callable<Object> callable = () -> DispatchController.RESULT;
+
+    private ThreadPoolTaskExecutor executor;
+    private AspectWebAsync aspectWebAsync;
+    private DispatchController controller;
+    private DispatchController proxy;
+    private Method method;
+
+    /**
+     * @throws NoSuchMethodException
+     */
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        executor.initialize();
+
+        final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        controller = new DispatchController();
+        beanFactory.registerSingleton(DispatchController.POOL_NAME, executor);
+        beanFactory.registerSingleton("dispatchController", controller);
+        aspectWebAsync = new AspectWebAsync(webAsyncTaskService);
+        aspectWebAsync.setBeanFactory(beanFactory);
+        aspectWebAsync.afterSingletonsInstantiated();
+
+        final AspectJProxyFactory factory = new AspectJProxyFactory(controller);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspectWebAsync);
+        proxy = factory.getProxy();
+
+        method = DispatchController.class.getMethod("async");
+    }
+
+    /**
+     * 
+     */
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public Object syncBaseline() {
+        return controller.sync();
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public Object syncProxy() {
+        return proxy.sync();
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public WebAsyncTask<Object> utilsSend() {
+        return WebAsyncTaskUtils.send(DispatchController.RESULT);
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public WebAsyncTask<Void> utilsSendVoid() {
+        return WebAsyncTaskUtils.send();
+    }
+
+    /**
+     * Plan résolu au démarrage, tel que lu par l'aspect à chaque appel.
+     * @return
+     */
+    @Benchmark
+    public WebAsyncDispatchPlan dispatchPlanLookup() {
+        return aspectWebAsync.getDispatchPlan(method);
+    }
+
+    /**
+     * @return
+     * @throws Exception
+     */
+    @Benchmark
+    public Object callableThrowable() throws Exception {
+        return new CallableThrowable<>(() -> DispatchController.RESULT).call();
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public AsyncTaskExecutor taskExecutorAdapter() {
+        return new TaskExecutorAdapter(executor);
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public WebAsyncTask<Object> serviceSend() {
+        return webAsyncTaskService.send(TIMEOUT, executor, callable);
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public WebAsyncTask<Object> aspectActivate() {
+        return proxy.async();
+    }
+
+    /**
+     * @return
+     */
+    @Benchmark
+    public WebAsyncTask<Void> aspectActivateVoid() {
+        return proxy.asyncVoid();
+    }
+
+    /**
+     * Aller-retour complet : dispatch par l'aspect, exécution sur le pool et attente du résultat.
+     * @return
+     * @throws Exception
+     */
+    @Benchmark
+    public Object aspectRoundTrip() throws Exception {
+        final WebAsyncTask<Object> task = proxy.async();
+        return ((AsyncListenableTaskExecutor) task.getExecutor()).submit(task.getCallable()).get();
+    }
+
+    /**
+     * Aller-retour complet : dispatch par le service, exécution sur le pool et attente du résultat.
+     * @return
+     * @throws Exception
+     */
+    @Benchmark
+    public Object serviceRoundTrip() throws Exception {
+        final WebAsyncTask<Object> task = webAsyncTaskService.send(TIMEOUT, executor, callable);
+        return executor.submit(task.getCallable()).get();
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.benchmark;
+
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import org.flcit.springboot.web.async.annotation.WebAsync;
+import org.flcit.springboot.web.async.util.WebAsyncTaskUtils;
+
+/**
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class DispatchController {
+
+    static final String POOL_NAME = "BenchmarkThreadPoolTaskExecutor";
+    static final Object RESULT = new Object();
+
+    /**
+     * @return
+     */
+    public Object sync() {
+        return RESULT;
+    }
+
+    /**
+     * @return
+     */
+    @WebAsync(POOL_NAME)
+    public WebAsyncTask<Object> async() {
+        return WebAsyncTaskUtils.send(RESULT);
+    }
+
+    /**
+     * @return
+     */
+    @WebAsync(POOL_NAME)
+    public WebAsyncTask<Void> asyncVoid() {
+        return WebAsyncTaskUtils.send();
+    }
+
+}
@@ -16,40 +16,289 @@
 
 package org.flcit.springboot.web.async;
 
+import java.util.Collections;
+import java.util.stream.Collectors;
+
 import javax.servlet.Servlet;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.web.servlet.DispatcherServlet;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.flcit.springboot.web.async.annotation.aspect.AspectWebAsync;
+import org.flcit.springboot.web.async.autoscale.WebAsyncAutoscalingController;
+import org.flcit.springboot.web.async.autoscale.WebAsyncPoolAutoscaler;
+import org.flcit.springboot.web.async.cancellation.WebAsyncCancellationInterceptor;
+import org.flcit.springboot.web.async.configuration.WebAsyncProperties;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolsRegistrar;
+import org.flcit.springboot.web.async.configuration.WebAsyncWebMvcConfigurer;
+import org.flcit.springboot.web.async.context.LocaleContextPropagator;
+import org.flcit.springboot.web.async.context.MdcContextPropagator;
+import org.flcit.springboot.web.async.context.RequestContextPropagator;
+import org.flcit.springboot.web.async.context.WebAsyncContextInterceptor;
+import org.flcit.springboot.web.async.context.WebAsyncContextPropagator;
+import org.flcit.springboot.web.async.context.WebAsyncContextPropagators;
+import org.flcit.springboot.web.async.deadline.WebAsyncDeadlineInterceptor;
+import org.flcit.springboot.web.async.endpoint.WebAsyncPoolsEndpoint;
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.metrics.WebAsyncTaskMetricsInterceptor;
+import org.flcit.springboot.web.async.metrics.WebAsyncTaskPoolMetrics;
 import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+import org.flcit.springboot.web.async.trace.WebAsyncTaskTraceInterceptor;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
 
 /**
  * 
  * @since 
  * @author Florian Lestic
  */
-@AutoConfiguration
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+})
 @ConditionalOnWebApplication(type = Type.SERVLET)
 @ConditionalOnClass({ Servlet.class, DispatcherServlet.class })
-@Import(WebAsyncTaskService.class)
+@EnableConfigurationProperties(WebAsyncProperties.class)
 public class WebAsyncAutoConfiguration {
 
+    /**
+     * @param properties
+     * @param contextPropagators
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public WebAsyncTaskService getWebAsyncTaskService(WebAsyncProperties properties, ObjectProvider<WebAsyncContextPropagators> contextPropagators) {
+        return new WebAsyncTaskService(AsyncTaskExecutorUtils.getDefaultExecutor(properties.getThreads()), contextPropagators.getIfAvailable(WebAsyncContextPropagators::none));
+    }
+
+    /**
+     * @return
+     */
+    @Bean
+    public static WebAsyncTaskPoolsRegistrar getWebAsyncTaskPoolsRegistrar() {
+        return new WebAsyncTaskPoolsRegistrar();
+    }
+
+    /**
+     * @param interceptors
+     * @return
+     */
+    @Bean
+    public WebAsyncWebMvcConfigurer getWebAsyncWebMvcConfigurer(ObjectProvider<WebAsyncTaskInterceptor> interceptors) {
+        return new WebAsyncWebMvcConfigurer(interceptors);
+    }
+
+    /**
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public WebAsyncDeadlineInterceptor getWebAsyncDeadlineInterceptor() {
+        return new WebAsyncDeadlineInterceptor();
+    }
+
+    /**
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = WebAsyncProperties.PREFIX, name = "cancellation")
+    public WebAsyncCancellationInterceptor getWebAsyncCancellationInterceptor() {
+        return new WebAsyncCancellationInterceptor();
+    }
+
+    /**
+     * @param publisher
+     * @param properties
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = WebAsyncProperties.PREFIX, name = "tracing.enabled")
+    public WebAsyncTaskTraceInterceptor getWebAsyncTaskTraceInterceptor(ApplicationEventPublisher publisher, WebAsyncProperties properties) {
+        return new WebAsyncTaskTraceInterceptor(publisher, properties.getTracing().isHeaders());
+    }
+
+    /**
+     * @param properties
+     * @param pools
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @Conditional(OnAutoscaledPoolCondition.class)
+    public WebAsyncAutoscalingController getWebAsyncAutoscalingController(WebAsyncProperties properties, ObjectProvider<WebAsyncTaskPool> pools) {
+        final WebAsyncAutoscalingController controller = new WebAsyncAutoscalingController(pools);
+        properties.getPools().forEach((name, pool) -> {
+            final WebAsyncProperties.Autoscale autoscale = pool.getAutoscale();
+            if (autoscale.isEnabled() && !pool.isForkJoin()) {
+                controller.register(name, new WebAsyncPoolAutoscaler(
+                        autoscale.getMinSize(),
+                        autoscale.getMaxSize(),
+                        autoscale.getTargetQueueLatency().toMillis(),
+                        autoscale.getTargetUtilization()), autoscale.getInterval().toMillis());
+            }
+        });
+        return controller;
+    }
+
     /**
      * @param webAsyncTaskService
      * @return
      */
     @Bean
     @ConditionalOnClass(name = "org.aspectj.lang.annotation.Aspect")
-    @ConditionalOnProperty(prefix = "async.web", name = "annotation")
+    @ConditionalOnProperty(prefix = WebAsyncProperties.PREFIX, name = "annotation")
     public AspectWebAsync getAspectWebAsync(WebAsyncTaskService webAsyncTaskService) {
         return new AspectWebAsync(webAsyncTaskService);
     }
 
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = WebAsyncProperties.PREFIX, name = "context-propagation", matchIfMissing = true)
+    static class WebAsyncContextConfiguration {
+
+        /**
+         * @return
+         */
+        @Bean
+        public RequestContextPropagator getRequestContextPropagator() {
+            return new RequestContextPropagator();
+        }
+
+        /**
+         * @return
+         */
+        @Bean
+        public LocaleContextPropagator getLocaleContextPropagator() {
+            return new LocaleContextPropagator();
+        }
+
+        /**
+         * @return
+         */
+        @Bean
+        @ConditionalOnClass(name = "org.slf4j.MDC")
+        public MdcContextPropagator getMdcContextPropagator() {
+            return new MdcContextPropagator();
+        }
+
+        /**
+         * @param propagators
+         * @return
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public WebAsyncContextPropagators getWebAsyncContextPropagators(ObjectProvider<WebAsyncContextPropagator<?>> propagators) {
+            return new WebAsyncContextPropagators(propagators.orderedStream().collect(Collectors.toList()));
+        }
+
+        /**
+         * @return
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public WebAsyncContextInterceptor getWebAsyncContextInterceptor() {
+            return new WebAsyncContextInterceptor();
+        }
+
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    static class WebAsyncMetricsConfiguration {
+
+        /**
+         * @param registry
+         * @return
+         */
+        @Bean
+        public WebAsyncTaskMetricsInterceptor getWebAsyncTaskMetricsInterceptor(MeterRegistry registry) {
+            return new WebAsyncTaskMetricsInterceptor(registry);
+        }
+
+        /**
+         * @param pools
+         * @return
+         */
+        @Bean
+        public WebAsyncTaskPoolMetrics getWebAsyncTaskPoolMetrics(ObjectProvider<WebAsyncTaskPool> pools) {
+            return new WebAsyncTaskPoolMetrics(pools);
+        }
+
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class WebAsyncEndpointConfiguration {
+
+        /**
+         * @param pools
+         * @return
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public WebAsyncPoolsEndpoint getWebAsyncPoolsEndpoint(ObjectProvider<WebAsyncTaskPool> pools) {
+            return new WebAsyncPoolsEndpoint(pools);
+        }
+
+    }
+
+    /**
+     * Matches when at least one pool, other than a fork-join one, enables its autoscaling.
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    static class OnAutoscaledPoolCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            final boolean autoscaled = Binder.get(context.getEnvironment())
+                    .bind(WebAsyncTaskPoolsRegistrar.PREFIX, Bindable.mapOf(String.class, WebAsyncProperties.Pool.class))
+                    .orElse(Collections.emptyMap())
+                    .values()
+                    .stream()
+                    .anyMatch(pool -> pool.getAutoscale().isEnabled() && !pool.isForkJoin());
+            return autoscaled ? ConditionOutcome.match("autoscaled pool found") : ConditionOutcome.noMatch("no autoscaled pool");
+        }
+
+    }
+
 }
@@ -48,5 +48,62 @@ public @interface WebAsync {
      * @return
      */
     long timeout() default 0;
+    /**
+     * @return threads used when no executor bean resolves
+     */
+    WebAsyncThreads threads() default WebAsyncThreads.AUTO;
+    /**
+     * @return {@code true} to run the concurrent identical calls once, all of them completing with the shared result
+     */
+    boolean coalesce() default false;
+    /**
+     * @return SpEL expression evaluated against the method arguments ({@code #nom}, {@code #p0}...) and the current request ({@code #request})
+     * identifying the identical calls to coalesce or to cache, all the arguments when empty
+     */
+    String key() default StringUtils.EMPTY;
+    /**
+     * @return milliseconds the result of a key is cached, {@code 0} for no cache
+     */
+    long cacheTtl() default 0;
+    /**
+     * @return maximum number of cached keys, the least recently used being evicted
+     */
+    int cacheSize() default 1000;
+    /**
+     * @return priority of the tasks, the higher served first by a {@code PriorityThreadPoolTaskExecutor}
+     */
+    int priority() default 0;
+    /**
+     * @return maximum number of concurrent tasks of the method (of each {@link #quotaKey()} value), {@code 0} for no quota
+     */
+    int maxConcurrency() default 0;
+    /**
+     * @return SpEL expression, as {@link #key()}, sharing the {@link #maxConcurrency()} quota ({@code #request.getHeader('X-Tenant')}...),
+     * one quota for the method when empty
+     */
+    String quotaKey() default StringUtils.EMPTY;
+    /**
+     * @return name of a method of the bean taking the {@code List} of the {@link #key()} values of concurrent calls
+     * and returning their values in a {@code Map}, called once per batch instead of the annotated method,
+     * empty for no batching
+     */
+    String batch() default StringUtils.EMPTY;
+    /**
+     * @return distinct keys flushing a batch
+     */
+    int batchSize() default 100;
+    /**
+     * @return milliseconds a batch waits for more keys
+     */
+    long batchWindow() default 10;
+    /**
+     * @return percentile of the latencies of the method after which a second copy of an idempotent call is submitted,
+     * the first result winning and the other copy being cancelled, {@code 0} for the {@link #hedgeDelay()} alone
+     */
+    double hedgePercentile() default 0;
+    /**
+     * @return minimum milliseconds before a second copy is submitted, {@code 0} with no {@link #hedgePercentile()} for no hedging
+     */
+    long hedgeDelay() default 0;
 
 }
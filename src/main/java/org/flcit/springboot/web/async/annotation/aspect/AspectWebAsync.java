@@ -18,27 +18,41 @@ package org.flcit.springboot.web.async.annotation.aspect;
 
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.flcit.commons.core.functional.callable.CallableThrowable;
 import org.flcit.commons.core.util.ObjectUtils;
 import org.flcit.commons.core.util.StringUtils;
 import org.flcit.springboot.commons.core.util.BeanUtils;
 import org.flcit.springboot.web.async.annotation.WebAsync;
-import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.annotation.WebAsyncThreads;
+import org.flcit.springboot.web.async.bulkhead.WebAsyncBulkhead;
+import org.flcit.springboot.web.async.cache.WebAsyncResultCache;
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
 import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * 
@@ -46,9 +60,9 @@ import org.springframework.web.context.request.async.WebAsyncTask;
  * @author Florian Lestic
  */
 @Aspect
-public class AspectWebAsync implements BeanFactoryAware {
+public class AspectWebAsync implements BeanFactoryAware, SmartInitializingSingleton {
 
-    private final Map<Method, AsyncTaskExecutor> executors = new ConcurrentHashMap<>(16);
+    private final Map<Method, WebAsyncDispatchPlan> plans = new ConcurrentHashMap<>(16);
 
     @Nullable
     private BeanFactory beanFactory;
@@ -68,42 +82,183 @@ public class AspectWebAsync implements BeanFactoryAware {
      * @return
      * @throws Throwable
      */
-    @Around("@annotation(webAsync)")
+    @Around("@annotation(webAsync)"
+            + " && !execution(java.util.concurrent.CompletionStage+ *(..))"
+            + " && !execution(org.springframework.web.context.request.async.DeferredResult+ *(..))"
+            + " && !execution(org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody+ *(..))")
     public WebAsyncTask<Object> activate(final ProceedingJoinPoint joinPoint, final WebAsync webAsync) throws Throwable {
-        final AsyncTaskExecutor executor = getAsyncTaskExecutor(((MethodSignature) joinPoint.getSignature()).getMethod(), webAsync);
-        return webAsyncTaskService.send(getTimeout(executor, webAsync), executor, new CallableThrowable<>(() -> getResponse(joinPoint.proceed())));
+        final WebAsyncDispatchPlan plan = getDispatchPlan(joinPoint, webAsync);
+        if (plan.isBatch()) {
+            return webAsyncTaskService.sendBatched(plan.getTimeout(), plan.getBatcher(joinPoint.getTarget()),
+                    plan.getBatchKey(joinPoint.getTarget(), joinPoint.getArgs()));
+        }
+        final WebAsyncResultCache cache = plan.getCache();
+        if (cache == null && !plan.isCoalesce()) {
+            return send(plan, joinPoint, new ProceedingJoinPointCallable(plan.getExecutor(), joinPoint));
+        }
+        final Object key = plan.getKey(joinPoint.getTarget(), joinPoint.getArgs());
+        if (cache != null) {
+            final ValueWrapper cached = cache.get(key);
+            if (cached != null) {
+                return webAsyncTaskService.sendCompleted(plan.getTimeout(), plan.getExecutor(), cached.get());
+            }
+        }
+        final ProceedingJoinPointCallable callable = new ProceedingJoinPointCallable(plan.getExecutor(), joinPoint, cache, key);
+        return plan.isCoalesce()
+                ? webAsyncTaskService.sendCoalesced(plan.getTimeout(), plan.getExecutor(), key, callable)
+                : send(plan, joinPoint, callable);
+    }
+
+    private WebAsyncTask<Object> send(final WebAsyncDispatchPlan plan, final ProceedingJoinPoint joinPoint, final ProceedingJoinPointCallable callable) {
+        if (plan.getHedge() != null) {
+            return webAsyncTaskService.sendHedged(plan.getTimeout(), plan.getHedge(), callable);
+        }
+        final WebAsyncBulkhead bulkhead = plan.getBulkhead();
+        if (bulkhead != null) {
+            return webAsyncTaskService.send(plan.getTimeout(), plan.getExecutor(), plan.getPriority(), bulkhead,
+                    plan.getQuotaKey(joinPoint.getTarget(), joinPoint.getArgs()), callable);
+        }
+        return plan.getPriority() == PriorityThreadPoolTaskExecutor.DEFAULT_PRIORITY
+                ? webAsyncTaskService.send(plan.getTimeout(), plan.getExecutor(), callable)
+                : webAsyncTaskService.send(plan.getTimeout(), plan.getExecutor(), plan.getPriority(), callable);
+    }
+
+    /**
+     * For the methods declared as returning {@link CompletionStage} or {@link CompletableFuture}.
+     * @param joinPoint
+     * @param webAsync
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    @Around("@annotation(webAsync) && execution(java.util.concurrent.CompletionStage+ *(..))")
+    public CompletableFuture<Object> activateCompletionStage(final ProceedingJoinPoint joinPoint, final WebAsync webAsync) {
+        final WebAsyncDispatchPlan plan = getDispatchPlan(joinPoint, webAsync);
+        return webAsyncTaskService.sendCompletable(plan.getTimeout(), plan.getExecutor(),
+                () -> (CompletionStage<Object>) ProceedingJoinPointCallable.proceed(joinPoint));
+    }
+
+    /**
+     * @param joinPoint
+     * @param webAsync
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    @Around("@annotation(webAsync) && execution(org.springframework.web.context.request.async.DeferredResult+ *(..))")
+    public DeferredResult<Object> activateDeferredResult(final ProceedingJoinPoint joinPoint, final WebAsync webAsync) {
+        final WebAsyncDispatchPlan plan = getDispatchPlan(joinPoint, webAsync);
+        return webAsyncTaskService.sendDeferred(plan.getTimeout(), plan.getExecutor(),
+                () -> (DeferredResult<Object>) ProceedingJoinPointCallable.proceed(joinPoint));
+    }
+
+    /**
+     * For the methods declared as returning {@link StreamingResponseBody}, the method being called
+     * on the request thread and the body written on the executor.
+     * @param joinPoint
+     * @param webAsync
+     * @return
+     * @throws Throwable
+     */
+    @Around("@annotation(webAsync) && execution(org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody+ *(..))")
+    public StreamingResponseBody activateStreaming(final ProceedingJoinPoint joinPoint, final WebAsync webAsync) throws Throwable {
+        final WebAsyncDispatchPlan plan = getDispatchPlan(joinPoint, webAsync);
+        return webAsyncTaskService.sendStreaming(plan.getTimeout(), plan.getExecutor(), (StreamingResponseBody) joinPoint.proceed());
+    }
+
+    private WebAsyncDispatchPlan getDispatchPlan(final ProceedingJoinPoint joinPoint, final WebAsync webAsync) {
+        return getDispatchPlan(((MethodSignature) joinPoint.getSignature()).getMethod(), webAsync);
+    }
+
+    /**
+     * @param method
+     * @return the plan resolved at startup or on the first call, {@code null} if the method was never resolved
+     */
+    public WebAsyncDispatchPlan getDispatchPlan(final Method method) {
+        return this.plans.get(method);
+    }
+
+    private WebAsyncDispatchPlan getDispatchPlan(final Method method, final WebAsync webAsync) {
+        final WebAsyncDispatchPlan plan = this.plans.get(method);
+        return plan != null ? plan : this.plans.computeIfAbsent(method, m -> createDispatchPlan(m, webAsync, false));
+    }
+
+    /**
+     * Resolves the plan of every {@link WebAsync} method of the singletons,
+     * an executor declared on the annotation and not found fails the startup.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!(this.beanFactory instanceof ListableBeanFactory)) {
+            return;
+        }
+        final ListableBeanFactory listableBeanFactory = (ListableBeanFactory) this.beanFactory;
+        for (String beanName : listableBeanFactory.getBeanNamesForType(Object.class, false, false)) {
+            final Class<?> type = listableBeanFactory.getType(beanName, false);
+            if (type != null) {
+                resolveDispatchPlans(ClassUtils.getUserClass(type));
+            }
+        }
     }
 
-    private static Long getTimeout(final AsyncTaskExecutor executor, final WebAsync webAsync) {
-        if (webAsync.timeout() == -1) {
-            return null;
-        } else if (webAsync.timeout() > 0) {
-            return webAsync.timeout();
-        } else if (executor instanceof WebAsyncTaskPool) {
-            return ((WebAsyncTaskPool) executor).getTimeout();
+    private void resolveDispatchPlans(final Class<?> type) {
+        if (!AnnotationUtils.isCandidateClass(type, WebAsync.class)) {
+            return;
+        }
+        MethodIntrospector.selectMethods(type, (MethodIntrospector.MetadataLookup<WebAsync>) m -> m.getAnnotation(WebAsync.class))
+            .forEach((method, webAsync) -> this.plans.computeIfAbsent(method, m -> createDispatchPlan(m, webAsync, true)));
+    }
+
+    private WebAsyncDispatchPlan createDispatchPlan(final Method method, final WebAsync webAsync, final boolean required) {
+        if (ResponseBodyEmitter.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalStateException("@WebAsync method " + method
+                    + " cannot return a ResponseBodyEmitter, use WebAsyncTaskService.sendEmitter");
+        }
+        if (isCompletionDriven(method.getReturnType()) && hasDispatchOptions(webAsync)) {
+            throw new IllegalStateException("@WebAsync method " + method + " returning a " + method.getReturnType().getSimpleName()
+                    + " only supports value, executor, threads and timeout");
+        }
+        final String executorName = StringUtils.nullIfEmpty(webAsync.value());
+        final Class<? extends AsyncTaskExecutor> executorClass = ObjectUtils.nullIfEquals(webAsync.executor(), AsyncTaskExecutor.class);
+        AsyncTaskExecutor executor = BeanUtils.getOptionalByNameOrClass(
+                this.beanFactory,
+                executorName,
+                AsyncTaskExecutor.class,
+                executorClass);
+        if (executor == null) {
+            if (required && (executorName != null || executorClass != null)) {
+                throw new IllegalStateException("No AsyncTaskExecutor "
+                        + (executorName != null ? executorName : executorClass.getName())
+                        + " found for @WebAsync method " + method);
+            }
+            executor = getDefaultExecutor(webAsync);
         }
-        return null;
-    }
-
-    private AsyncTaskExecutor getAsyncTaskExecutor(final Method method, final WebAsync webAsync) {
-        return this.executors.computeIfAbsent(method, m -> {
-             AsyncTaskExecutor executor = BeanUtils.getOptionalByNameOrClass(
-                     this.beanFactory,
-                     StringUtils.nullIfEmpty(webAsync.value()),
-                     AsyncTaskExecutor.class,
-                     ObjectUtils.nullIfEquals(webAsync.executor(), AsyncTaskExecutor.class));
-             if (executor == null) {
-                 executor = new SimpleAsyncTaskExecutor();
-             }
-             if (!(executor instanceof AsyncListenableTaskExecutor)) {
-                 executor = new TaskExecutorAdapter(executor);
-             }
-             return executor;
-        });
-    }
-
-    private static Object getResponse(Object result) {
-        return ((WebAsyncTaskResponse<?>) result).getResult();
+        if (!(executor instanceof AsyncListenableTaskExecutor)) {
+            executor = new TaskExecutorAdapter(executor);
+        }
+        return new WebAsyncDispatchPlan(method, executor, webAsync);
+    }
+
+    private static boolean isCompletionDriven(final Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType)
+                || DeferredResult.class.isAssignableFrom(returnType)
+                || StreamingResponseBody.class.isAssignableFrom(returnType);
+    }
+
+    private static boolean hasDispatchOptions(final WebAsync webAsync) {
+        return webAsync.coalesce()
+                || webAsync.cacheTtl() > 0
+                || webAsync.priority() != PriorityThreadPoolTaskExecutor.DEFAULT_PRIORITY
+                || webAsync.maxConcurrency() > 0
+                || !webAsync.quotaKey().isEmpty()
+                || !webAsync.batch().isEmpty()
+                || webAsync.hedgePercentile() > 0
+                || webAsync.hedgeDelay() > 0;
+    }
+
+    private AsyncTaskExecutor getDefaultExecutor(final WebAsync webAsync) {
+        final AsyncTaskExecutor executor = webAsync.threads() == WebAsyncThreads.AUTO
+                ? webAsyncTaskService.getDefaultExecutor()
+                : AsyncTaskExecutorUtils.getDefaultExecutor(webAsync.threads());
+        return executor != null ? executor : new SimpleAsyncTaskExecutor();
     }
 
     @Override
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.annotation.aspect;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import org.flcit.springboot.web.async.cache.WebAsyncResultCache;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+/**
+ * Proceeds the {@link ProceedingJoinPoint} and unwraps the {@link WebAsyncTaskResponse},
+ * a single allocation per call, the result being put in the cache of the method if any.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class ProceedingJoinPointCallable extends WebAsyncTaskCallable<Object> {
+
+    private final ProceedingJoinPoint joinPoint;
+    private final WebAsyncResultCache cache;
+    private final Object key;
+
+    ProceedingJoinPointCallable(AsyncTaskExecutor executor, ProceedingJoinPoint joinPoint) {
+        this(executor, joinPoint, null, null);
+    }
+
+    ProceedingJoinPointCallable(AsyncTaskExecutor executor, ProceedingJoinPoint joinPoint, WebAsyncResultCache cache, Object key) {
+        super(null, executor);
+        this.joinPoint = joinPoint;
+        this.cache = cache;
+        this.key = key;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        checkDiscarded();
+        final Object response = proceed(joinPoint);
+        final Object result = response != null ? ((WebAsyncTaskResponse<?>) response).getResult() : null;
+        if (cache != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    static Object proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return joinPoint.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.annotation.aspect;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import org.flcit.commons.core.util.StringUtils;
+import org.flcit.springboot.web.async.annotation.WebAsync;
+import org.flcit.springboot.web.async.batch.WebAsyncBatcher;
+import org.flcit.springboot.web.async.bulkhead.WebAsyncBulkhead;
+import org.flcit.springboot.web.async.cache.WebAsyncResultCache;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.hedge.WebAsyncHedge;
+
+/**
+ * Dispatch resolved once per {@link WebAsync} method: the executor and the timeout of its tasks.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncDispatchPlan {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final Method method;
+    private final AsyncTaskExecutor executor;
+    private final Long timeout;
+    private final WebAsyncTaskPool pool;
+    private final boolean coalesce;
+    private final Expression key;
+    private final WebAsyncResultCache cache;
+    private final int priority;
+    private final WebAsyncBulkhead bulkhead;
+    private final Expression quotaKey;
+    private final Method batchMethod;
+    private final int batchSize;
+    private final long batchWindow;
+    private volatile WebAsyncBatcher<Object, Object> batcher;
+    private final WebAsyncHedge hedge;
+
+    WebAsyncDispatchPlan(Method method, AsyncTaskExecutor executor, WebAsync webAsync) {
+        this.method = method;
+        this.executor = executor;
+        this.coalesce = webAsync.coalesce();
+        final String keyExpression = StringUtils.nullIfEmpty(webAsync.key());
+        this.key = keyExpression != null ? PARSER.parseExpression(keyExpression) : null;
+        this.priority = webAsync.priority();
+        this.bulkhead = webAsync.maxConcurrency() > 0
+                ? new WebAsyncBulkhead(method.getDeclaringClass().getSimpleName() + '.' + method.getName(), webAsync.maxConcurrency())
+                : null;
+        final String quotaKeyExpression = StringUtils.nullIfEmpty(webAsync.quotaKey());
+        this.quotaKey = quotaKeyExpression != null ? PARSER.parseExpression(quotaKeyExpression) : null;
+        this.cache = webAsync.cacheTtl() > 0 ? new WebAsyncResultCache(webAsync.cacheTtl(), webAsync.cacheSize()) : null;
+        final String batchMethodName = StringUtils.nullIfEmpty(webAsync.batch());
+        this.batchMethod = batchMethodName != null ? getBatchMethod(method, batchMethodName) : null;
+        if (this.batchMethod != null && (this.coalesce || this.cache != null)) {
+            throw new IllegalStateException("@WebAsync method " + method + " cannot be batched and coalesced or cached");
+        }
+        // the batched and coalesced calls are not submitted one by one, so neither limited nor prioritized
+        if ((this.batchMethod != null || this.coalesce) && (this.bulkhead != null || this.priority != PriorityThreadPoolTaskExecutor.DEFAULT_PRIORITY)) {
+            throw new IllegalStateException("@WebAsync method " + method + " cannot be batched or coalesced and limited or prioritized");
+        }
+        this.batchSize = webAsync.batchSize();
+        this.batchWindow = webAsync.batchWindow();
+        this.hedge = webAsync.hedgePercentile() > 0 || webAsync.hedgeDelay() > 0
+                ? new WebAsyncHedge(executor, webAsync.hedgePercentile(), webAsync.hedgeDelay())
+                : null;
+        if (this.hedge != null && (this.batchMethod != null || this.coalesce || this.bulkhead != null
+                || this.priority != PriorityThreadPoolTaskExecutor.DEFAULT_PRIORITY)) {
+            throw new IllegalStateException("@WebAsync method " + method + " cannot be hedged and batched, coalesced, limited or prioritized");
+        }
+        if (webAsync.timeout() == -1) {
+            this.timeout = null;
+            this.pool = null;
+        } else if (webAsync.timeout() > 0) {
+            this.timeout = webAsync.timeout();
+            this.pool = null;
+        } else {
+            this.timeout = null;
+            this.pool = executor instanceof WebAsyncTaskPool ? (WebAsyncTaskPool) executor : null;
+        }
+    }
+
+    /**
+     * @return
+     */
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the timeout of the annotation, otherwise the current timeout of the pool
+     */
+    public Long getTimeout() {
+        return pool != null ? pool.getTimeout() : timeout;
+    }
+
+    /**
+     * @return
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return {@code true} when the concurrent identical calls are coalesced
+     */
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    /**
+     * @return the cache of the results, {@code null} when not cached
+     */
+    public WebAsyncResultCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return the quota of the concurrent tasks, {@code null} when unlimited
+     */
+    public WebAsyncBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * @return {@code true} when the calls are batched
+     */
+    public boolean isBatch() {
+        return batchMethod != null;
+    }
+
+    /**
+     * @return the hedging of the calls, {@code null} when not hedged
+     */
+    public WebAsyncHedge getHedge() {
+        return hedge;
+    }
+
+    /**
+     * @param target bean of the batch method, the first one calling being kept since the {@code @WebAsync} beans are singletons
+     * @return the batcher of the calls, {@code null} when not batched
+     */
+    public WebAsyncBatcher<Object, Object> getBatcher(Object target) {
+        if (batchMethod == null) {
+            return null;
+        }
+        WebAsyncBatcher<Object, Object> current = batcher;
+        if (current == null) {
+            synchronized (this) {
+                current = batcher;
+                if (current == null) {
+                    current = new WebAsyncBatcher<>(executor, batchSize, batchWindow, keys -> loadBatch(target, keys));
+                    batcher = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> loadBatch(Object target, List<Object> keys) throws Exception {
+        try {
+            return (Map<Object, Object>) batchMethod.invoke(target, keys);
+        } catch (InvocationTargetException e) {
+            final Throwable cause = e.getTargetException();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private static Method getBatchMethod(Method method, String name) {
+        final List<Method> candidates = new ArrayList<>(1);
+        ReflectionUtils.doWithMethods(method.getDeclaringClass(), candidates::add,
+                m -> m.getName().equals(name)
+                    && m.getParameterCount() == 1
+                    && m.getParameterTypes()[0].isAssignableFrom(List.class)
+                    && Map.class.isAssignableFrom(m.getReturnType()));
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("No batch method " + name + "(List) returning a Map found for @WebAsync method " + method);
+        }
+        final Method batchMethod = candidates.get(0);
+        ReflectionUtils.makeAccessible(batchMethod);
+        return batchMethod;
+    }
+
+    /**
+     * @param target
+     * @param args
+     * @return the {@link WebAsync#key()} value of the call in its batch, the argument when empty and the method has a single one
+     */
+    public Object getBatchKey(Object target, Object[] args) {
+        return key != null ? evaluate(key, target, args) : SimpleKeyGenerator.generateKey(args);
+    }
+
+    /**
+     * @param target
+     * @param args
+     * @return the key identifying the call, made of the method and of the {@link WebAsync#key()} value
+     */
+    public Object getKey(Object target, Object[] args) {
+        final Object value = key != null
+                ? evaluate(key, target, args)
+                : SimpleKeyGenerator.generateKey(args);
+        return new SimpleKey(method, value);
+    }
+
+    /**
+     * @param target
+     * @param args
+     * @return the {@link WebAsync#quotaKey()} value, the method when empty or {@code null}
+     */
+    public Object getQuotaKey(Object target, Object[] args) {
+        final Object value = quotaKey != null ? evaluate(quotaKey, target, args) : null;
+        return value != null ? value : method;
+    }
+
+    private Object evaluate(Expression expression, Object target, Object[] args) {
+        final MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(target, method, args, PARAMETER_NAME_DISCOVERER);
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            context.setVariable("request", ((ServletRequestAttributes) attributes).getRequest());
+        }
+        return expression.getValue(context);
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.autoscale;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+
+/**
+ * Background controller sampling the {@link WebAsyncTaskPool} registered with a {@link WebAsyncPoolAutoscaler}
+ * on a daemon thread and resizing them as it decides.
+ * It starts once the context is refreshed, each pool being first sampled after its interval.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncAutoscalingController implements SmartLifecycle, DisposableBean {
+
+    private static final Log LOG = LogFactory.getLog(WebAsyncAutoscalingController.class);
+
+    private final ObjectProvider<WebAsyncTaskPool> pools;
+    private final Map<String, Registration> registrations = new LinkedHashMap<>();
+    private volatile ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param pools
+     */
+    public WebAsyncAutoscalingController(ObjectProvider<WebAsyncTaskPool> pools) {
+        this.pools = pools;
+    }
+
+    /**
+     * Registers a pool, before the controller is started.
+     * @param executorName
+     * @param autoscaler
+     * @param interval milliseconds between two samples
+     */
+    public void register(String executorName, WebAsyncPoolAutoscaler autoscaler, long interval) {
+        registrations.put(executorName, new Registration(autoscaler, interval));
+    }
+
+    /**
+     * @param executorName
+     * @return the autoscaler of the pool, {@code null} when not registered
+     */
+    public WebAsyncPoolAutoscaler getAutoscaler(String executorName) {
+        final Registration registration = registrations.get(executorName);
+        return registration != null ? registration.autoscaler : null;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (registrations.isEmpty() || scheduler != null) {
+            return;
+        }
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("web-async-autoscale-");
+        threadFactory.setDaemon(true);
+        scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+        for (Map.Entry<String, Registration> entry : registrations.entrySet()) {
+            final Registration registration = entry.getValue();
+            registration.future = scheduler.scheduleWithFixedDelay(() -> sample(entry.getKey(), registration),
+                    registration.interval, registration.interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Samples every registered pool once, resizing it when its autoscaler decides so.
+     */
+    public void sample() {
+        for (Map.Entry<String, Registration> entry : registrations.entrySet()) {
+            sample(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void sample(String executorName, Registration registration) {
+        final WebAsyncTaskPool pool = getPool(executorName);
+        if (pool == null) {
+            return;
+        }
+        try {
+            final WebAsyncTaskPoolStats stats = pool.getStats();
+            final Integer coreSize = registration.autoscaler.sample(stats);
+            if (coreSize != null) {
+                pool.resize(coreSize, stats.getMaxSize() != null && coreSize > stats.getMaxSize() ? coreSize : null, null);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Pool " + executorName + " resized from " + stats.getCoreSize() + " to " + coreSize + " threads, queue latency "
+                            + registration.autoscaler.getQueueLatency() + "ms");
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            LOG.warn(e.getMessage() + ", autoscaling disabled");
+            if (registration.future != null) {
+                registration.future.cancel(false);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Autoscaling of pool " + executorName + " failed", e);
+        }
+    }
+
+    private WebAsyncTaskPool getPool(String executorName) {
+        return pools.orderedStream()
+                .filter(pool -> executorName.equals(pool.getExecutorName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    private static final class Registration {
+
+        private final WebAsyncPoolAutoscaler autoscaler;
+        private final long interval;
+        private volatile ScheduledFuture<?> future;
+
+        private Registration(WebAsyncPoolAutoscaler autoscaler, long interval) {
+            this.autoscaler = autoscaler;
+            this.interval = interval;
+        }
+
+    }
+
+}
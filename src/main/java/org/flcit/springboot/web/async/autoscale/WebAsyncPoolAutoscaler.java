@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.autoscale;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+
+/**
+ * Core size of a pool tuned toward a target queue latency, estimated from each sample of the pool
+ * by Little's law as the queued tasks over the completion rate since the previous sample.
+ * The core size grows, at most doubling per sample, while the latency is over the target,
+ * and shrinks, by a quarter at most, while nothing is queued and the busy threads are below the target utilization.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncPoolAutoscaler {
+
+    private final int minSize;
+    private final int maxSize;
+    private final double targetQueueLatency;
+    private final double targetUtilization;
+    private long lastSample;
+    private long lastCompleted = -1;
+    private volatile double queueLatency;
+    private volatile double completionRate;
+    private volatile double utilization;
+
+    /**
+     * @param minSize minimum core size
+     * @param maxSize maximum core size
+     * @param targetQueueLatency milliseconds
+     * @param targetUtilization ratio of busy threads below which the pool shrinks
+     */
+    public WebAsyncPoolAutoscaler(int minSize, int maxSize, long targetQueueLatency, double targetUtilization) {
+        Assert.isTrue(minSize >= 0 && minSize <= maxSize && maxSize > 0, "minSize must be positive and lower than maxSize");
+        Assert.isTrue(targetQueueLatency > 0, "targetQueueLatency must be positive");
+        Assert.isTrue(targetUtilization > 0 && targetUtilization <= 1, "targetUtilization must be between 0 and 1");
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetQueueLatency = targetQueueLatency;
+        this.targetUtilization = targetUtilization;
+    }
+
+    /**
+     * @param stats
+     * @return the new core size, {@code null} to keep the current one
+     */
+    public Integer sample(WebAsyncTaskPoolStats stats) {
+        return sample(stats, System.nanoTime());
+    }
+
+    synchronized Integer sample(WebAsyncTaskPoolStats stats, long now) {
+        if (stats.getCoreSize() == null || stats.getCompletedTaskCount() == null) {
+            return null;
+        }
+        final long completed = stats.getCompletedTaskCount();
+        if (lastCompleted < 0) {
+            lastSample = now;
+            lastCompleted = completed;
+            return null;
+        }
+        final double elapsed = (double) (now - lastSample) / TimeUnit.SECONDS.toNanos(1);
+        if (elapsed <= 0) {
+            return null;
+        }
+        completionRate = (completed - lastCompleted) / elapsed;
+        lastSample = now;
+        lastCompleted = completed;
+        final int core = stats.getCoreSize();
+        final int queued = stats.getQueueSize();
+        final int active = stats.getActiveCount();
+        utilization = core > 0 ? Math.min(1, (double) active / core) : 1;
+        if (queued == 0) {
+            queueLatency = 0;
+        } else {
+            queueLatency = completionRate > 0 ? queued / completionRate * 1000 : Double.POSITIVE_INFINITY;
+        }
+        int desired = core;
+        if (queueLatency > targetQueueLatency) {
+            desired = Math.max(core + 1, (int) Math.ceil(core * Math.min(2, queueLatency / targetQueueLatency)));
+        } else if (queued == 0 && utilization < targetUtilization) {
+            desired = Math.max(core - Math.max(1, core / 4), (int) Math.ceil(active / targetUtilization));
+        }
+        desired = Math.min(maxSize, Math.max(minSize, desired));
+        return desired != core ? desired : null;
+    }
+
+    /**
+     * @return milliseconds estimated at the last sample
+     */
+    public double getQueueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * @return tasks completed per second between the last two samples
+     */
+    public double getCompletionRate() {
+        return completionRate;
+    }
+
+    /**
+     * @return ratio of busy core threads at the last sample
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+}
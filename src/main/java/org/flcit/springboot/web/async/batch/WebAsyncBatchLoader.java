@@ -0,0 +1,40 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.batch;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the values of a batch of keys in one call, a multi-get of the store for instance.
+ * 
+ * @param <K>
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+@FunctionalInterface
+public interface WebAsyncBatchLoader<K, V> {
+
+    /**
+     * @param keys the distinct keys of the batch
+     * @return the values by key, a key missing being answered with {@code null}
+     * @throws Exception failing every call of the batch
+     */
+    Map<K, ? extends V> load(List<K> keys) throws Exception;
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.batch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+import org.flcit.springboot.web.async.util.WebAsyncTimeoutUtils;
+
+/**
+ * Groups the keys submitted concurrently into batches, flushed to the {@link WebAsyncBatchLoader} on the executor
+ * when they reach the max size or once the window since their first key has elapsed.
+ * Each call is completed with the value of its own key, the calls sharing a key in a batch loading it once.
+ * The batches flushed by their window are handed off by the shared timer to a thread submitting them, never run there:
+ * rejected, discarded, or run on that thread by the rejection policy of a saturated pool, their calls fail with the rejection.
+ * 
+ * @param <K>
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncBatcher<K, V> {
+
+    private final AsyncTaskExecutor executor;
+    private final int maxSize;
+    private final long window;
+    private final WebAsyncBatchLoader<K, V> loader;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+    private Batch pending;
+
+    /**
+     * @param executor executor of the loader
+     * @param maxSize distinct keys flushing a batch
+     * @param window milliseconds a batch waits for more keys
+     * @param loader
+     */
+    public WebAsyncBatcher(AsyncTaskExecutor executor, int maxSize, long window, WebAsyncBatchLoader<K, V> loader) {
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        Assert.isTrue(window >= 0, "window must not be negative");
+        this.executor = executor;
+        this.maxSize = maxSize;
+        this.window = window;
+        this.loader = loader;
+    }
+
+    /**
+     * @param key
+     * @return the value of the key, completed when its batch is loaded
+     */
+    public CompletableFuture<V> submit(K key) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        Batch full = null;
+        synchronized (this) {
+            if (pending == null) {
+                final Batch batch = new Batch();
+                pending = batch;
+                batch.timer = WebAsyncTimeoutUtils.schedule(() -> flush(batch), window);
+            }
+            pending.add(key, future);
+            if (pending.futures.size() >= maxSize) {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (full != null) {
+            full.timer.cancel(false);
+            execute(full);
+        }
+        return future;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        WebAsyncTimeoutUtils.handOff(() -> execute(batch));
+    }
+
+    private void execute(Batch batch) {
+        batches.increment();
+        keys.add(batch.futures.size());
+        try {
+            AsyncTaskExecutorUtils.submit(executor, batch::load, batch::fail);
+        } catch (RuntimeException e) {
+            batch.fail(e);
+        }
+    }
+
+    /**
+     * @return
+     */
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return batches sent to the loader
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * @return distinct keys sent to the loader
+     */
+    public long getKeyCount() {
+        return keys.sum();
+    }
+
+    private final class Batch {
+
+        private final Map<K, List<CompletableFuture<V>>> futures = new LinkedHashMap<>();
+        private ScheduledFuture<?> timer;
+
+        private void add(K key, CompletableFuture<V> future) {
+            futures.computeIfAbsent(key, k -> new ArrayList<>(1)).add(future);
+        }
+
+        private void load() {
+            final Map<K, ? extends V> values;
+            try {
+                values = loader.load(new ArrayList<>(futures.keySet()));
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            futures.forEach((key, calls) -> {
+                final V value = values != null ? values.get(key) : null;
+                calls.forEach(call -> call.complete(value));
+            });
+        }
+
+        private void fail(Throwable e) {
+            futures.values().forEach(calls -> calls.forEach(call -> call.completeExceptionally(e)));
+        }
+
+    }
+
+}
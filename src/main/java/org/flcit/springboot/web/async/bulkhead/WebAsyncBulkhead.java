@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.bulkhead;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+
+/**
+ * Maximum number of concurrent tasks per key (a method, a tenant...) inside a shared executor,
+ * the tasks over the quota being rejected with a {@link WebAsyncTaskRejectedException} before their submission.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncBulkhead {
+
+    private final String name;
+    private final int maxConcurrency;
+    private final Map<Object, Integer> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param name
+     * @param maxConcurrency maximum number of concurrent tasks of a key
+     */
+    public WebAsyncBulkhead(String name, int maxConcurrency) {
+        Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be positive");
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * @param key
+     * @return the permit to release once the task is completed
+     * @throws WebAsyncTaskRejectedException when the quota of the key is reached
+     */
+    public Permit acquire(Object key) {
+        final boolean[] acquired = new boolean[1];
+        inFlight.compute(key, (k, count) -> {
+            if (count == null) {
+                acquired[0] = true;
+                return 1;
+            }
+            if (count < maxConcurrency) {
+                acquired[0] = true;
+                return count + 1;
+            }
+            return count;
+        });
+        if (!acquired[0]) {
+            rejected.increment();
+            throw new WebAsyncTaskRejectedException("Quota " + maxConcurrency + " reached for " + name + " " + key);
+        }
+        return new Permit(key);
+    }
+
+    /**
+     * @param key
+     * @return the number of tasks of the key holding a permit
+     */
+    public int getInFlight(Object key) {
+        final Integer count = inFlight.get(key);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * @return
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Permit of a task, released once whatever the number of calls to {@link #release()}.
+     */
+    public final class Permit {
+
+        private final Object key;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * 
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+    }
+
+}
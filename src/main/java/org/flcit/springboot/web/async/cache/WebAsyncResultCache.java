@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.util.Assert;
+
+/**
+ * Results of a {@code WebAsync} method kept for a time to live, in a {@link ConcurrentHashMap} read without lock.
+ * An expired entry is removed when read, and once the maximum size is exceeded a single writer evicts
+ * the expired entries then the least recently read ones, a sixteenth of the maximum size below it,
+ * the size being exceeded meanwhile by the concurrent writes.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncResultCache {
+
+    private final long ttl;
+    private final int maxSize;
+    private final int evictedSize;
+    private final LongSupplier clock;
+    private final Map<Object, CachedValue> entries = new ConcurrentHashMap<>(16);
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param ttl milliseconds an entry is kept
+     * @param maxSize
+     */
+    public WebAsyncResultCache(long ttl, int maxSize) {
+        this(ttl, maxSize, System::nanoTime);
+    }
+
+    WebAsyncResultCache(long ttl, int maxSize, LongSupplier clock) {
+        Assert.isTrue(ttl > 0, "ttl must be positive");
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.maxSize = maxSize;
+        this.evictedSize = maxSize - maxSize / 16;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key
+     * @return the cached result, {@code null} when missing or expired
+     */
+    public ValueWrapper get(Object key) {
+        final CachedValue entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        final long now = clock.getAsLong();
+        if (now - entry.expiresAt >= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        entry.readAt = now;
+        return entry;
+    }
+
+    /**
+     * @param key
+     * @param value
+     */
+    public void put(Object key, Object value) {
+        final long now = clock.getAsLong();
+        entries.put(key, new CachedValue(value, now, now + ttl));
+        if (entries.size() > maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict(now);
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private void evict(long now) {
+        final List<Candidate> live = new ArrayList<>(entries.size());
+        for (Map.Entry<Object, CachedValue> entry : entries.entrySet()) {
+            final CachedValue value = entry.getValue();
+            if (now - value.expiresAt >= 0) {
+                entries.remove(entry.getKey(), value);
+            } else {
+                // read once, the entries being read again during the sort
+                live.add(new Candidate(entry.getKey(), value, value.readAt - now));
+            }
+        }
+        if (live.size() <= maxSize) {
+            return;
+        }
+        live.sort(Comparator.comparingLong(candidate -> candidate.readAt));
+        for (int i = 0; i < live.size() - evictedSize; i++) {
+            if (entries.remove(live.get(i).key, live.get(i).value)) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * @return
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of entries evicted to keep the maximum size
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static final class Candidate {
+
+        private final Object key;
+        private final CachedValue value;
+        private final long readAt;
+
+        private Candidate(Object key, CachedValue value, long readAt) {
+            this.key = key;
+            this.value = value;
+            this.readAt = readAt;
+        }
+
+    }
+
+    private static final class CachedValue extends SimpleValueWrapper {
+
+        private final long expiresAt;
+        private volatile long readAt;
+
+        CachedValue(Object value, long readAt, long expiresAt) {
+            super(value);
+            this.readAt = readAt;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
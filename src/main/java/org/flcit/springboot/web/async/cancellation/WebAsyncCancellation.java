@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.cancellation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Cancellation token of a task, cancelled when its request times out or fails (client disconnected, container error).
+ * The token of the running task is available through {@link #current()} so that the task can stop its work
+ * or abort its downstream calls.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncCancellation {
+
+    private static final Log LOG = LogFactory.getLog(WebAsyncCancellation.class);
+    private static final ThreadLocal<WebAsyncCancellation> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+    private List<Runnable> callbacks;
+
+    /**
+     * @return the token of the task running on the current thread, {@code null} if none
+     */
+    public static WebAsyncCancellation current() {
+        return CURRENT.get();
+    }
+
+    static void set(WebAsyncCancellation cancellation) {
+        if (cancellation != null) {
+            CURRENT.set(cancellation);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Web async task cancelled");
+        }
+    }
+
+    /**
+     * @param callback called on cancellation, immediately if already cancelled
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (this) {
+            if (!cancelled) {
+                if (callbacks == null) {
+                    callbacks = new ArrayList<>(2);
+                }
+                callbacks.add(callback);
+                return;
+            }
+        }
+        run(callback);
+    }
+
+    void cancel() {
+        final List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = callbacks;
+            callbacks = null;
+        }
+        if (toRun != null) {
+            toRun.forEach(WebAsyncCancellation::run);
+        }
+    }
+
+    private static void run(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            LOG.warn("Web async task cancellation callback failed", e);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.cancellation;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+/**
+ * Gives each task a {@link WebAsyncCancellation}, cancelled on timeout or error of its request.
+ * The {@code Future} of the task being already cancelled with interruption by Spring MVC,
+ * the token lets the task stop the work that does not respond to interruption.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncCancellationInterceptor implements WebAsyncTaskInterceptor {
+
+    private static final String CANCELLATION_ATTRIBUTE = WebAsyncCancellationInterceptor.class.getName() + ".CANCELLATION";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (task instanceof WebAsyncTaskCallable) {
+            request.setAttribute(CANCELLATION_ATTRIBUTE, new WebAsyncCancellation(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        WebAsyncCancellation.set(getCancellation(request));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        WebAsyncCancellation.set(null);
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        cancel(request);
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        cancel(request);
+        return RESULT_NONE;
+    }
+
+    private static void cancel(NativeWebRequest request) {
+        final WebAsyncCancellation cancellation = getCancellation(request);
+        if (cancellation != null) {
+            cancellation.cancel();
+        }
+    }
+
+    private static WebAsyncCancellation getCancellation(NativeWebRequest request) {
+        return (WebAsyncCancellation) request.getAttribute(CANCELLATION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+}
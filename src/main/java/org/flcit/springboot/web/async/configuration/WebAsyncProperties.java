@@ -0,0 +1,655 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.flcit.springboot.web.async.annotation.WebAsyncThreads;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy;
+
+/**
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+@ConfigurationProperties(WebAsyncProperties.PREFIX)
+public class WebAsyncProperties {
+
+    public static final String PREFIX = "async.web";
+
+    /**
+     * Enables the @WebAsync annotation.
+     */
+    private boolean annotation;
+    /**
+     * Threads used when no executor is given.
+     */
+    private WebAsyncThreads threads = WebAsyncThreads.AUTO;
+    /**
+     * Gives each task a cancellation token, cancelled on timeout or error of its request.
+     */
+    private boolean cancellation;
+    /**
+     * Captures the thread-bound contexts (MDC, request attributes, locale...) when a task is sent and binds them on the thread running it.
+     */
+    private boolean contextPropagation = true;
+    /**
+     * Tracing of the phases of the tasks.
+     */
+    private final Tracing tracing = new Tracing();
+    /**
+     * Named pools, registered as beans {@code WebAsyncTaskPool} named after the key.
+     */
+    private Map<String, Pool> pools = new LinkedHashMap<>();
+
+    /**
+     * @return
+     */
+    public boolean isAnnotation() {
+        return annotation;
+    }
+    /**
+     * @param annotation
+     */
+    public void setAnnotation(boolean annotation) {
+        this.annotation = annotation;
+    }
+    /**
+     * @return
+     */
+    public WebAsyncThreads getThreads() {
+        return threads;
+    }
+    /**
+     * @param threads
+     */
+    public void setThreads(WebAsyncThreads threads) {
+        this.threads = threads;
+    }
+    /**
+     * @return
+     */
+    public boolean isCancellation() {
+        return cancellation;
+    }
+    /**
+     * @param cancellation
+     */
+    public void setCancellation(boolean cancellation) {
+        this.cancellation = cancellation;
+    }
+    /**
+     * @return
+     */
+    public boolean isContextPropagation() {
+        return contextPropagation;
+    }
+    /**
+     * @param contextPropagation
+     */
+    public void setContextPropagation(boolean contextPropagation) {
+        this.contextPropagation = contextPropagation;
+    }
+    /**
+     * @return
+     */
+    public Tracing getTracing() {
+        return tracing;
+    }
+    /**
+     * @return
+     */
+    public Map<String, Pool> getPools() {
+        return pools;
+    }
+    /**
+     * @param pools
+     */
+    public void setPools(Map<String, Pool> pools) {
+        this.pools = pools;
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static class Pool {
+
+        /**
+         * Backs the pool by a work-stealing ForkJoinPool whose parallelism is the core size,
+         * the other thread and queue properties being ignored.
+         */
+        private boolean forkJoin;
+        /**
+         * Core number of threads.
+         */
+        private int coreSize = 8;
+        /**
+         * Maximum allowed number of threads.
+         */
+        private int maxSize = Integer.MAX_VALUE;
+        /**
+         * Queue capacity, an unbounded capacity does not increase the pool.
+         */
+        private int queueCapacity = Integer.MAX_VALUE;
+        /**
+         * Time limit for which threads may remain idle before being terminated.
+         */
+        private Duration keepAlive = Duration.ofSeconds(60);
+        /**
+         * Whether core threads are allowed to time out.
+         */
+        private boolean allowCoreThreadTimeout = true;
+        /**
+         * Timeout of the web requests handled by the pool.
+         */
+        private Duration timeout;
+        /**
+         * Adaptive concurrency limit in front of the pool.
+         */
+        private final Limit limit = new Limit();
+        /**
+         * Priority queue of the pool.
+         */
+        private final Priority priority = new Priority();
+        /**
+         * Handling of the tasks the saturated pool cannot queue.
+         */
+        private final Rejection rejection = new Rejection();
+        /**
+         * Resizing of the pool from its observed queue latency.
+         */
+        private final Autoscale autoscale = new Autoscale();
+
+        /**
+         * @return
+         */
+        public boolean isForkJoin() {
+            return forkJoin;
+        }
+        /**
+         * @param forkJoin
+         */
+        public void setForkJoin(boolean forkJoin) {
+            this.forkJoin = forkJoin;
+        }
+        /**
+         * @return
+         */
+        public int getCoreSize() {
+            return coreSize;
+        }
+        /**
+         * @param coreSize
+         */
+        public void setCoreSize(int coreSize) {
+            this.coreSize = coreSize;
+        }
+        /**
+         * @return
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+        /**
+         * @param maxSize
+         */
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+        /**
+         * @return
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        /**
+         * @param queueCapacity
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        /**
+         * @return
+         */
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+        /**
+         * @param keepAlive
+         */
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+        /**
+         * @return
+         */
+        public boolean isAllowCoreThreadTimeout() {
+            return allowCoreThreadTimeout;
+        }
+        /**
+         * @param allowCoreThreadTimeout
+         */
+        public void setAllowCoreThreadTimeout(boolean allowCoreThreadTimeout) {
+            this.allowCoreThreadTimeout = allowCoreThreadTimeout;
+        }
+        /**
+         * @return
+         */
+        public Duration getTimeout() {
+            return timeout;
+        }
+        /**
+         * @param timeout
+         */
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+        /**
+         * @return
+         */
+        public Limit getLimit() {
+            return limit;
+        }
+        /**
+         * @return
+         */
+        public Priority getPriority() {
+            return priority;
+        }
+        /**
+         * @return
+         */
+        public Rejection getRejection() {
+            return rejection;
+        }
+        /**
+         * @return
+         */
+        public Autoscale getAutoscale() {
+            return autoscale;
+        }
+
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static class Limit {
+
+        /**
+         * Enables the AIMD concurrency limit, the tasks over the limit are answered with a 503.
+         */
+        private boolean enabled;
+        /**
+         * Initial limit of in-flight tasks.
+         */
+        private int initial = 20;
+        /**
+         * Minimum limit of in-flight tasks.
+         */
+        private int min = 1;
+        /**
+         * Maximum limit of in-flight tasks.
+         */
+        private int max = 200;
+        /**
+         * Ratio applied to the limit when a task is dropped.
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * Latency, from the submission to the completion, above which a task is considered dropped.
+         */
+        private Duration latencyThreshold;
+
+        /**
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+        /**
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        /**
+         * @return
+         */
+        public int getInitial() {
+            return initial;
+        }
+        /**
+         * @param initial
+         */
+        public void setInitial(int initial) {
+            this.initial = initial;
+        }
+        /**
+         * @return
+         */
+        public int getMin() {
+            return min;
+        }
+        /**
+         * @param min
+         */
+        public void setMin(int min) {
+            this.min = min;
+        }
+        /**
+         * @return
+         */
+        public int getMax() {
+            return max;
+        }
+        /**
+         * @param max
+         */
+        public void setMax(int max) {
+            this.max = max;
+        }
+        /**
+         * @return
+         */
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+        /**
+         * @param backoffRatio
+         */
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+        /**
+         * @return
+         */
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+        /**
+         * @param latencyThreshold
+         */
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static class Priority {
+
+        /**
+         * Enables the priority queue, the tasks being served by priority then by arrival.
+         */
+        private boolean enabled;
+        /**
+         * Waiting time for a queued task to gain one level of priority.
+         */
+        private Duration aging = Duration.ofSeconds(1);
+
+        /**
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+        /**
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        /**
+         * @return
+         */
+        public Duration getAging() {
+            return aging;
+        }
+        /**
+         * @param aging
+         */
+        public void setAging(Duration aging) {
+            this.aging = aging;
+        }
+
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static class Rejection {
+
+        /**
+         * Policy applied to the tasks the saturated pool cannot queue.
+         */
+        private WebAsyncRejectionPolicy policy = WebAsyncRejectionPolicy.ABORT;
+        /**
+         * Retry-After header of the 503 answered to the rejected tasks.
+         */
+        private Duration retryAfter;
+        /**
+         * Time a submitting thread may run (caller-runs) or wait (wait) for a rejected task.
+         */
+        private Duration budget = Duration.ofSeconds(1);
+
+        /**
+         * @return
+         */
+        public WebAsyncRejectionPolicy getPolicy() {
+            return policy;
+        }
+        /**
+         * @param policy
+         */
+        public void setPolicy(WebAsyncRejectionPolicy policy) {
+            this.policy = policy;
+        }
+        /**
+         * @return
+         */
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+        /**
+         * @param retryAfter
+         */
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+        /**
+         * @return
+         */
+        public Duration getBudget() {
+            return budget;
+        }
+        /**
+         * @param budget
+         */
+        public void setBudget(Duration budget) {
+            this.budget = budget;
+        }
+
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static class Autoscale {
+
+        /**
+         * Enables the resizing of the core size, the max size being raised when the core size exceeds it.
+         */
+        private boolean enabled;
+        /**
+         * Minimum core size.
+         */
+        private int minSize = 1;
+        /**
+         * Maximum core size.
+         */
+        private int maxSize = 64;
+        /**
+         * Queue latency above which the pool grows.
+         */
+        private Duration targetQueueLatency = Duration.ofMillis(100);
+        /**
+         * Ratio of busy threads below which the pool shrinks, when nothing is queued.
+         */
+        private double targetUtilization = 0.75;
+        /**
+         * Time between two samples of the pool.
+         */
+        private Duration interval = Duration.ofSeconds(10);
+
+        /**
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+        /**
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        /**
+         * @return
+         */
+        public int getMinSize() {
+            return minSize;
+        }
+        /**
+         * @param minSize
+         */
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+        /**
+         * @return
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+        /**
+         * @param maxSize
+         */
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+        /**
+         * @return
+         */
+        public Duration getTargetQueueLatency() {
+            return targetQueueLatency;
+        }
+        /**
+         * @param targetQueueLatency
+         */
+        public void setTargetQueueLatency(Duration targetQueueLatency) {
+            this.targetQueueLatency = targetQueueLatency;
+        }
+        /**
+         * @return
+         */
+        public double getTargetUtilization() {
+            return targetUtilization;
+        }
+        /**
+         * @param targetUtilization
+         */
+        public void setTargetUtilization(double targetUtilization) {
+            this.targetUtilization = targetUtilization;
+        }
+        /**
+         * @return
+         */
+        public Duration getInterval() {
+            return interval;
+        }
+        /**
+         * @param interval
+         */
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+    }
+
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static class Tracing {
+
+        /**
+         * Records the timestamps of the phases of each task, from the start of the async processing to the commit of the response,
+         * published as a {@code WebAsyncTaskTrace} event.
+         */
+        private boolean enabled;
+        /**
+         * Writes the queue, execution and dispatch durations in the Server-Timing header of the responses.
+         */
+        private boolean headers;
+
+        /**
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+        /**
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        /**
+         * @return
+         */
+        public boolean isHeaders() {
+            return headers;
+        }
+        /**
+         * @param headers
+         */
+        public void setHeaders(boolean headers) {
+            this.headers = headers;
+        }
+
+    }
+
+}
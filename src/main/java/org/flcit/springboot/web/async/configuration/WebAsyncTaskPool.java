@@ -16,6 +16,11 @@
 
 package org.flcit.springboot.web.async.configuration;
 
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.util.ThreadPoolTaskExecutorUtils;
+
 /**
  * 
  * @since 
@@ -35,5 +40,31 @@ public interface WebAsyncTaskPool {
      * @param timeout
      */
     public void setTimeout(Long timeout);
+    /**
+     * @return the live state of the pool, read from its executor when the pool is a {@link ThreadPoolTaskExecutor}
+     */
+    public default WebAsyncTaskPoolStats getStats() {
+        if (this instanceof ThreadPoolTaskExecutor) {
+            final ThreadPoolTaskExecutor pool = (ThreadPoolTaskExecutor) this;
+            return ThreadPoolTaskExecutorUtils.getStats(pool, pool.getQueueCapacity());
+        }
+        return new WebAsyncTaskPoolStats(null, null, null, null, null, null, null);
+    }
+    /**
+     * Resizes the pool at runtime, the {@code null} values being left unchanged.
+     * A queue shrunk under its size keeps its tasks and refuses the new ones until drained.
+     * @param coreSize
+     * @param maxSize
+     * @param queueCapacity
+     * @throws UnsupportedOperationException when the pool cannot be resized
+     * @throws IllegalStateException when the queue of a {@link ThreadPoolTaskExecutor} is resized
+     */
+    public default void resize(Integer coreSize, Integer maxSize, Integer queueCapacity) {
+        if (!(this instanceof ThreadPoolTaskExecutor)) {
+            throw new UnsupportedOperationException("Pool " + getExecutorName() + " cannot be resized");
+        }
+        Assert.state(queueCapacity == null, () -> "Queue of pool " + getExecutorName() + " cannot be resized");
+        ThreadPoolTaskExecutorUtils.resize((ThreadPoolTaskExecutor) this, getExecutorName(), coreSize, maxSize);
+    }
 
 }
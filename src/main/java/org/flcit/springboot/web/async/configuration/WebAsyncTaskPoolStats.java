@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.configuration;
+
+/**
+ * Live state of a {@link WebAsyncTaskPool}, {@code null} values being unknown for the pool.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncTaskPoolStats {
+
+    private final Integer coreSize;
+    private final Integer maxSize;
+    private final Integer queueCapacity;
+    private final Integer poolSize;
+    private final Integer activeCount;
+    private final Integer queueSize;
+    private final Long completedTaskCount;
+
+    /**
+     * @param coreSize
+     * @param maxSize
+     * @param queueCapacity
+     * @param poolSize
+     * @param activeCount
+     * @param queueSize
+     * @param completedTaskCount
+     */
+    public WebAsyncTaskPoolStats(Integer coreSize, Integer maxSize, Integer queueCapacity,
+            Integer poolSize, Integer activeCount, Integer queueSize, Long completedTaskCount) {
+        this.coreSize = coreSize;
+        this.maxSize = maxSize;
+        this.queueCapacity = queueCapacity;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueSize = queueSize;
+        this.completedTaskCount = completedTaskCount;
+    }
+
+    /**
+     * @return
+     */
+    public Integer getCoreSize() {
+        return coreSize;
+    }
+
+    /**
+     * @return
+     */
+    public Integer getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return
+     */
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return threads currently in the pool
+     */
+    public Integer getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return threads actively executing tasks
+     */
+    public Integer getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return tasks waiting in the queue
+     */
+    public Integer getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @return
+     */
+    public Long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.configuration;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import org.flcit.springboot.web.async.executor.ConcurrencyLimitTaskExecutor;
+import org.flcit.springboot.web.async.executor.ForkJoinPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.WebAsyncThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.limit.AimdConcurrencyLimit;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectedExecutionHandler;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy;
+
+/**
+ * Registers a {@link WebAsyncThreadPoolTaskExecutor} bean, named after the pool, for each async.web.pools.&lt;name&gt; entry.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncTaskPoolsRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    public static final String PREFIX = WebAsyncProperties.PREFIX + ".pools";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        for (Map.Entry<String, WebAsyncProperties.Pool> entry : getPools().entrySet()) {
+            final String name = entry.getKey();
+            final WebAsyncProperties.Pool pool = entry.getValue();
+            if (pool.getLimit().isEnabled()) {
+                registry.registerBeanDefinition(name, new RootBeanDefinition(ConcurrencyLimitTaskExecutor.class, () -> createLimited(name, pool)));
+            } else if (pool.isForkJoin()) {
+                registry.registerBeanDefinition(name, new RootBeanDefinition(ForkJoinPoolTaskExecutor.class, () -> createForkJoin(name, pool)));
+            } else if (pool.getPriority().isEnabled()) {
+                registry.registerBeanDefinition(name, new RootBeanDefinition(PriorityThreadPoolTaskExecutor.class, () -> (PriorityThreadPoolTaskExecutor) create(name, pool)));
+            } else {
+                registry.registerBeanDefinition(name, new RootBeanDefinition(WebAsyncThreadPoolTaskExecutor.class, () -> create(name, pool)));
+            }
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        // nothing to do
+    }
+
+    private Map<String, WebAsyncProperties.Pool> getPools() {
+        return Binder.get(environment)
+                .bind(PREFIX, Bindable.mapOf(String.class, WebAsyncProperties.Pool.class))
+                .orElse(Collections.emptyMap());
+    }
+
+    /**
+     * @param name
+     * @param pool
+     * @return
+     */
+    public static WebAsyncThreadPoolTaskExecutor create(String name, WebAsyncProperties.Pool pool) {
+        final WebAsyncThreadPoolTaskExecutor executor = pool.getPriority().isEnabled()
+                ? new PriorityThreadPoolTaskExecutor(name, pool.getPriority().getAging().toMillis())
+                : new WebAsyncThreadPoolTaskExecutor(name);
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().getSeconds());
+        executor.setAllowCoreThreadTimeOut(pool.isAllowCoreThreadTimeout());
+        executor.setTimeout(pool.getTimeout() != null ? pool.getTimeout().toMillis() : null);
+        final WebAsyncProperties.Rejection rejection = pool.getRejection();
+        if (rejection.getPolicy() != WebAsyncRejectionPolicy.ABORT) {
+            executor.setRejectedExecutionHandler(new WebAsyncRejectedExecutionHandler(
+                    name,
+                    rejection.getPolicy(),
+                    rejection.getRetryAfter() != null ? Math.max(1, rejection.getRetryAfter().getSeconds()) : null,
+                    rejection.getBudget().toMillis()));
+        }
+        return executor;
+    }
+
+    /**
+     * @param name
+     * @param pool
+     * @return
+     */
+    public static ForkJoinPoolTaskExecutor createForkJoin(String name, WebAsyncProperties.Pool pool) {
+        final ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor(name, pool.getCoreSize());
+        executor.setTimeout(pool.getTimeout() != null ? pool.getTimeout().toMillis() : null);
+        return executor;
+    }
+
+    /**
+     * @param name
+     * @param pool
+     * @return
+     */
+    public static ConcurrencyLimitTaskExecutor createLimited(String name, WebAsyncProperties.Pool pool) {
+        final WebAsyncProperties.Limit limit = pool.getLimit();
+        return new ConcurrencyLimitTaskExecutor(pool.isForkJoin() ? createForkJoin(name, pool) : create(name, pool), new AimdConcurrencyLimit(
+                limit.getInitial(),
+                limit.getMin(),
+                limit.getMax(),
+                limit.getBackoffRatio(),
+                limit.getLatencyThreshold() != null ? limit.getLatencyThreshold().toMillis() : null));
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.configuration;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectedExceptionResolver;
+
+/**
+ * Registers every {@link WebAsyncTaskInterceptor} bean on the Spring MVC async support, as a {@link HandlerInterceptor} too
+ * when it implements it, and the {@link WebAsyncRejectedExceptionResolver} first of the exception resolvers.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncWebMvcConfigurer implements WebMvcConfigurer {
+
+    private final ObjectProvider<WebAsyncTaskInterceptor> interceptors;
+
+    /**
+     * @param interceptors
+     */
+    public WebAsyncWebMvcConfigurer(ObjectProvider<WebAsyncTaskInterceptor> interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(interceptors.orderedStream().toArray(CallableProcessingInterceptor[]::new));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        interceptors.orderedStream()
+            .filter(HandlerInterceptor.class::isInstance)
+            .forEach(interceptor -> registry.addInterceptor((HandlerInterceptor) interceptor));
+    }
+
+    @Override
+    public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
+        resolvers.add(0, new WebAsyncRejectedExceptionResolver());
+    }
+
+}
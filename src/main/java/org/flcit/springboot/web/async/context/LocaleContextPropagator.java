@@ -0,0 +1,40 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+/**
+ * Propagates the {@link LocaleContextHolder}.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class LocaleContextPropagator implements WebAsyncContextPropagator<LocaleContext> {
+
+    @Override
+    public LocaleContext capture() {
+        return LocaleContextHolder.getLocaleContext();
+    }
+
+    @Override
+    public void restore(LocaleContext context) {
+        LocaleContextHolder.setLocaleContext(context);
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Propagates the {@link RequestContextHolder}, the attributes of a Servlet request being copied
+ * since the ones of the handler are completed once it returns.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class RequestContextPropagator implements WebAsyncContextPropagator<RequestAttributes> {
+
+    @Override
+    public RequestAttributes capture() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            final ServletRequestAttributes servletAttributes = (ServletRequestAttributes) attributes;
+            return new ServletRequestAttributes(servletAttributes.getRequest(), servletAttributes.getResponse());
+        }
+        return attributes;
+    }
+
+    @Override
+    public void restore(RequestAttributes context) {
+        if (context == null) {
+            RequestContextHolder.resetRequestAttributes();
+        } else {
+            RequestContextHolder.setRequestAttributes(context);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+/**
+ * Binds the {@link WebAsyncContextSnapshot} captured when the task was sent around its call,
+ * first of the interceptors so that the others see the contexts.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncContextInterceptor implements WebAsyncTaskInterceptor, Ordered {
+
+    private static final ThreadLocal<WebAsyncContextSnapshot> PREVIOUS = new ThreadLocal<>();
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) throws Exception {
+        final WebAsyncContextSnapshot context = task instanceof WebAsyncTaskCallable ? ((WebAsyncTaskCallable<T>) task).getContext() : null;
+        if (context != null && !context.isEmpty()) {
+            PREVIOUS.set(context.attach());
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) throws Exception {
+        final WebAsyncContextSnapshot previous = PREVIOUS.get();
+        if (previous != null) {
+            PREVIOUS.remove();
+            previous.restore();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+}
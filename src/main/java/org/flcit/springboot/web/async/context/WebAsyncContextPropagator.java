@@ -0,0 +1,38 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+/**
+ * Carries a thread-bound context (MDC, security, tracing...) from the thread submitting a task to the thread running it.
+ * 
+ * @param <T> type of the context
+ * @since 
+ * @author Florian Lestic
+ */
+public interface WebAsyncContextPropagator<T> {
+
+    /**
+     * @return the context of the current thread, {@code null} when none
+     */
+    T capture();
+
+    /**
+     * @param context context to bind to the current thread, {@code null} to clear it
+     */
+    void restore(T context);
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+import java.util.List;
+
+/**
+ * Registry of the {@link WebAsyncContextPropagator} applied to every task submitted by {@code WebAsyncTaskService}.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncContextPropagators {
+
+    private static final WebAsyncContextPropagators NONE = new WebAsyncContextPropagators(new WebAsyncContextPropagator<?>[0]);
+
+    private final WebAsyncContextPropagator<?>[] propagators;
+
+    /**
+     * @param propagators
+     */
+    public WebAsyncContextPropagators(List<? extends WebAsyncContextPropagator<?>> propagators) {
+        this(propagators.toArray(new WebAsyncContextPropagator<?>[0]));
+    }
+
+    private WebAsyncContextPropagators(WebAsyncContextPropagator<?>[] propagators) {
+        this.propagators = propagators;
+    }
+
+    /**
+     * @return a registry propagating nothing
+     */
+    public static WebAsyncContextPropagators none() {
+        return NONE;
+    }
+
+    /**
+     * @return the contexts of the current thread
+     */
+    public WebAsyncContextSnapshot capture() {
+        return propagators.length == 0 ? WebAsyncContextSnapshot.EMPTY : new WebAsyncContextSnapshot(propagators);
+    }
+
+    /**
+     * @return
+     */
+    public int size() {
+        return propagators.length;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Contexts captured once on the submitting thread, bound around the task on the thread running it
+ * and replaced afterwards by the contexts this thread had before.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncContextSnapshot {
+
+    static final WebAsyncContextSnapshot EMPTY = new WebAsyncContextSnapshot(new WebAsyncContextPropagator<?>[0]);
+
+    private final WebAsyncContextPropagator<Object>[] propagators;
+    private final Object[] contexts;
+
+    @SuppressWarnings("unchecked")
+    WebAsyncContextSnapshot(WebAsyncContextPropagator<?>[] propagators) {
+        this.propagators = (WebAsyncContextPropagator<Object>[]) propagators;
+        this.contexts = new Object[propagators.length];
+        for (int i = 0; i < propagators.length; i++) {
+            contexts[i] = this.propagators[i].capture();
+        }
+    }
+
+    /**
+     * Binds the contexts to the current thread.
+     * @return the contexts replaced, to {@link #restore()} once the task is done
+     */
+    public WebAsyncContextSnapshot attach() {
+        if (isEmpty()) {
+            return this;
+        }
+        final WebAsyncContextSnapshot previous = new WebAsyncContextSnapshot(propagators);
+        restore();
+        return previous;
+    }
+
+    /**
+     * Binds the contexts to the current thread, clearing the ones captured as {@code null}.
+     */
+    public void restore() {
+        for (int i = 0; i < propagators.length; i++) {
+            propagators[i].restore(contexts[i]);
+        }
+    }
+
+    /**
+     * @return {@code true} when there is no propagator
+     */
+    public boolean isEmpty() {
+        return propagators.length == 0;
+    }
+
+    /**
+     * @param runnable
+     * @return the runnable running with the contexts, the runnable itself when empty
+     */
+    public Runnable wrap(Runnable runnable) {
+        if (isEmpty()) {
+            return runnable;
+        }
+        return () -> {
+            final WebAsyncContextSnapshot previous = attach();
+            try {
+                runnable.run();
+            } finally {
+                previous.restore();
+            }
+        };
+    }
+
+    /**
+     * @param <V>
+     * @param callable
+     * @return the callable called with the contexts, the callable itself when empty
+     */
+    public <V> Callable<V> wrap(Callable<V> callable) {
+        if (isEmpty()) {
+            return callable;
+        }
+        return () -> {
+            final WebAsyncContextSnapshot previous = attach();
+            try {
+                return callable.call();
+            } finally {
+                previous.restore();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instant after which the response of a task is no longer awaited, the Servlet async timeout having expired.
+ * The deadline of the running task is available through {@link #current()} to be passed to the downstream calls.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncDeadline {
+
+    private static final ThreadLocal<WebAsyncDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadline;
+
+    private WebAsyncDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * @param timeout milliseconds from now
+     * @return
+     */
+    public static WebAsyncDeadline after(long timeout) {
+        return new WebAsyncDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout));
+    }
+
+    /**
+     * @return the deadline of the task running on the current thread, {@code null} if none
+     */
+    public static WebAsyncDeadline current() {
+        return CURRENT.get();
+    }
+
+    static void set(WebAsyncDeadline deadline) {
+        if (deadline != null) {
+            CURRENT.set(deadline);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return milliseconds remaining before the deadline, {@code 0} once expired
+     */
+    public long getRemaining() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * @return
+     */
+    public boolean isExpired() {
+        return deadline - System.nanoTime() <= 0;
+    }
+
+}
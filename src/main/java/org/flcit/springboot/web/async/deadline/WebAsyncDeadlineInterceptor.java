@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.deadline;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+/**
+ * Skips the tasks dequeued after their {@link WebAsyncDeadline}, their response being no longer awaited,
+ * and exposes the deadline of the running task through {@link WebAsyncDeadline#current()}.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncDeadlineInterceptor implements WebAsyncTaskInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) throws Exception {
+        final WebAsyncDeadline deadline = task instanceof WebAsyncTaskCallable ? ((WebAsyncTaskCallable<T>) task).getDeadline() : null;
+        if (deadline == null) {
+            return;
+        }
+        if (deadline.isExpired()) {
+            throw new AsyncRequestTimeoutException();
+        }
+        WebAsyncDeadline.set(deadline);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) throws Exception {
+        WebAsyncDeadline.set(null);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.endpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+
+/**
+ * Actuator endpoint listing the {@link WebAsyncTaskPool} with their live state
+ * and resizing them, or changing their timeout, without a restart.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+@Endpoint(id = WebAsyncPoolsEndpoint.ID)
+public class WebAsyncPoolsEndpoint {
+
+    public static final String ID = "webasyncpools";
+
+    private final ObjectProvider<WebAsyncTaskPool> pools;
+
+    /**
+     * @param pools
+     */
+    public WebAsyncPoolsEndpoint(ObjectProvider<WebAsyncTaskPool> pools) {
+        this.pools = pools;
+    }
+
+    /**
+     * @return the pools by name
+     */
+    @ReadOperation
+    public Map<String, PoolDescriptor> pools() {
+        final Map<String, PoolDescriptor> descriptors = new LinkedHashMap<>();
+        pools.orderedStream().forEach(pool -> descriptors.put(pool.getExecutorName(), new PoolDescriptor(pool)));
+        return descriptors;
+    }
+
+    /**
+     * @param name
+     * @return the pool, {@code null} when unknown
+     */
+    @ReadOperation
+    public PoolDescriptor pool(@Selector String name) {
+        final WebAsyncTaskPool pool = getPool(name);
+        return pool != null ? new PoolDescriptor(pool) : null;
+    }
+
+    /**
+     * @param name
+     * @param coreSize
+     * @param maxSize
+     * @param queueCapacity
+     * @param timeout milliseconds
+     * @return the pool resized, {@code null} when unknown
+     * @throws InvalidEndpointRequestException when the pool cannot be resized so
+     */
+    @WriteOperation
+    public PoolDescriptor resize(@Selector String name, @Nullable Integer coreSize, @Nullable Integer maxSize,
+            @Nullable Integer queueCapacity, @Nullable Long timeout) {
+        final WebAsyncTaskPool pool = getPool(name);
+        if (pool == null) {
+            return null;
+        }
+        if (coreSize != null || maxSize != null || queueCapacity != null) {
+            try {
+                pool.resize(coreSize, maxSize, queueCapacity);
+            } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+                throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+            }
+        }
+        if (timeout != null) {
+            pool.setTimeout(timeout > 0 ? timeout : null);
+        }
+        return new PoolDescriptor(pool);
+    }
+
+    private WebAsyncTaskPool getPool(String name) {
+        return pools.orderedStream()
+                .filter(pool -> name.equals(pool.getExecutorName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public static final class PoolDescriptor {
+
+        private final Long timeout;
+        private final WebAsyncTaskPoolStats stats;
+
+        private PoolDescriptor(WebAsyncTaskPool pool) {
+            this.timeout = pool.getTimeout();
+            this.stats = pool.getStats();
+        }
+
+        /**
+         * @return milliseconds, {@code null} for the Spring MVC one
+         */
+        public Long getTimeout() {
+            return timeout;
+        }
+
+        /**
+         * @return
+         */
+        public WebAsyncTaskPoolStats getStats() {
+            return stats;
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * {@link LinkedBlockingQueue} bounded by a capacity that can be changed while the pool runs.
+ * A slot is reserved by a compare-and-set on the count of queued tasks, the offers taking no lock
+ * beyond the one of the base queue, and released by every removal.
+ * The timed offers and the puts wait for a removal while the queue is full.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class BoundedTaskQueue extends LinkedBlockingQueue<Runnable> implements ResizableQueue {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient QueueSpace space = new QueueSpace();
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile int capacity;
+
+    BoundedTaskQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        int current;
+        do {
+            current = count.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!count.compareAndSet(current, current + 1));
+        return super.offer(task);
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        return space.offer(() -> offer(task), unit.toNanos(timeout));
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        space.put(() -> offer(task));
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        final Runnable task = super.take();
+        release(1);
+        return task;
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return release(super.poll(timeout, unit));
+    }
+
+    @Override
+    public Runnable poll() {
+        return release(super.poll());
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        final boolean removed = super.remove(task);
+        if (removed) {
+            release(1);
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Runnable> filter) {
+        boolean removed = false;
+        for (Iterator<Runnable> it = iterator(); it.hasNext();) {
+            if (filter.test(it.next())) {
+                it.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> tasks) {
+        return removeIf(tasks::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> tasks) {
+        return removeIf(task -> !tasks.contains(task));
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks, int maxElements) {
+        final int drained = super.drainTo(tasks, maxElements);
+        release(drained);
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // each removal releases its slot
+        }
+    }
+
+    @Override
+    public Iterator<Runnable> iterator() {
+        final Iterator<Runnable> iterator = super.iterator();
+        return new Iterator<Runnable>() {
+
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                // the task may have been taken meanwhile, only an effective removal releases a slot
+                BoundedTaskQueue.this.remove(last);
+                last = null;
+            }
+
+        };
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - count.get());
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+        space.signal();
+    }
+
+    private Runnable release(Runnable removed) {
+        if (removed != null) {
+            release(1);
+        }
+        return removed;
+    }
+
+    private void release(int removed) {
+        if (removed > 0) {
+            count.addAndGet(-removed);
+            space.signal();
+        }
+    }
+
+}
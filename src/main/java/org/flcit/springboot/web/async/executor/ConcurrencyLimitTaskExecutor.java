@@ -0,0 +1,226 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+import org.flcit.springboot.web.async.limit.ConcurrencyLimit;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+import org.flcit.springboot.web.async.util.ThreadPoolTaskExecutorUtils;
+
+/**
+ * Admission control in front of an executor: the tasks over the {@link ConcurrencyLimit}
+ * are rejected with a {@link WebAsyncTaskRejectedException} instead of waiting in the queue.
+ * The limit is sampled with the time between the submission and the completion, or the cancellation, of each task.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class ConcurrencyLimitTaskExecutor implements AsyncListenableTaskExecutor, WebAsyncTaskPool, InitializingBean, DisposableBean {
+
+    private final AsyncTaskExecutor delegate;
+    private final ConcurrencyLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private Long timeout;
+
+    /**
+     * @param delegate
+     * @param limit
+     */
+    public ConcurrencyLimitTaskExecutor(AsyncTaskExecutor delegate, ConcurrencyLimit limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.timeout = delegate instanceof WebAsyncTaskPool ? ((WebAsyncTaskPool) delegate).getTimeout() : null;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(task);
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        submit(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return submitListenable(task);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return submitListenable(task);
+    }
+
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task) {
+        return execute(new LimitedFutureTask<>(task, null));
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+        return execute(new LimitedFutureTask<>(task));
+    }
+
+    private <T> ListenableFuture<T> execute(LimitedFutureTask<T> future) {
+        final int current = inFlight.incrementAndGet();
+        if (current > limit.getLimit()) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            throw new WebAsyncTaskRejectedException("Concurrency limit " + limit.getLimit() + " reached for executor " + getExecutorName());
+        }
+        future.inFlightAtSubmit = current;
+        try {
+            delegate.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.cancel(false);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * @return
+     */
+    public AsyncTaskExecutor getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * @return
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String getExecutorName() {
+        return AsyncTaskExecutorUtils.getExecutorName(delegate);
+    }
+
+    @Override
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public WebAsyncTaskPoolStats getStats() {
+        if (delegate instanceof WebAsyncTaskPool) {
+            return ((WebAsyncTaskPool) delegate).getStats();
+        }
+        if (delegate instanceof ThreadPoolTaskExecutor) {
+            return ThreadPoolTaskExecutorUtils.getStats((ThreadPoolTaskExecutor) delegate, ((ThreadPoolTaskExecutor) delegate).getQueueCapacity());
+        }
+        return WebAsyncTaskPool.super.getStats();
+    }
+
+    @Override
+    public void resize(Integer coreSize, Integer maxSize, Integer queueCapacity) {
+        if (delegate instanceof WebAsyncTaskPool) {
+            ((WebAsyncTaskPool) delegate).resize(coreSize, maxSize, queueCapacity);
+        } else if (delegate instanceof ThreadPoolTaskExecutor) {
+            Assert.state(queueCapacity == null, () -> "Queue of pool " + getExecutorName() + " cannot be resized");
+            ThreadPoolTaskExecutorUtils.resize((ThreadPoolTaskExecutor) delegate, getExecutorName(), coreSize, maxSize);
+        } else {
+            WebAsyncTaskPool.super.resize(coreSize, maxSize, queueCapacity);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (delegate instanceof InitializingBean) {
+            ((InitializingBean) delegate).afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean) {
+            ((DisposableBean) delegate).destroy();
+        }
+    }
+
+    private final class LimitedFutureTask<T> extends ListenableFutureTask<T> implements DiscardableTask {
+
+        private final long submitted = System.nanoTime();
+        private final Consumer<WebAsyncTaskRejectedException> onDiscard;
+        private int inFlightAtSubmit;
+
+        private LimitedFutureTask(Callable<T> callable) {
+            super(callable);
+            this.onDiscard = DiscardableFutureTask.forwardDiscard(callable);
+        }
+
+        private LimitedFutureTask(Runnable runnable, T result) {
+            super(runnable, result);
+            this.onDiscard = DiscardableFutureTask.forwardDiscard(runnable);
+        }
+
+        @Override
+        public void discard(WebAsyncTaskRejectedException cause) {
+            if (cancel(false) && onDiscard != null) {
+                onDiscard.accept(cause);
+            }
+        }
+
+        @Override
+        protected void done() {
+            inFlight.decrementAndGet();
+            limit.onSample(System.nanoTime() - submitted, inFlightAtSubmit, isCancelled());
+            super.done();
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * {@link FutureTask} calling back its submitter when discarded by a saturated pool.
+ * Without callback, it forwards the discard to the {@link DiscardableTask} it wraps.
+ * 
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+public class DiscardableFutureTask<V> extends FutureTask<V> implements DiscardableTask {
+
+    private final Consumer<WebAsyncTaskRejectedException> onDiscard;
+
+    /**
+     * @param callable
+     */
+    public DiscardableFutureTask(Callable<V> callable) {
+        this(callable, forwardDiscard(callable));
+    }
+
+    /**
+     * @param runnable
+     * @param result
+     */
+    public DiscardableFutureTask(Runnable runnable, V result) {
+        this(runnable, result, forwardDiscard(runnable));
+    }
+
+    /**
+     * @param callable
+     * @param onDiscard
+     */
+    public DiscardableFutureTask(Callable<V> callable, Consumer<WebAsyncTaskRejectedException> onDiscard) {
+        super(callable);
+        this.onDiscard = onDiscard;
+    }
+
+    /**
+     * @param runnable
+     * @param result
+     * @param onDiscard
+     */
+    public DiscardableFutureTask(Runnable runnable, V result, Consumer<WebAsyncTaskRejectedException> onDiscard) {
+        super(runnable, result);
+        this.onDiscard = onDiscard;
+    }
+
+    @Override
+    public void discard(WebAsyncTaskRejectedException cause) {
+        if (cancel(false) && onDiscard != null) {
+            onDiscard.accept(cause);
+        }
+    }
+
+    /**
+     * @param task
+     * @return the discard of the task when discardable, otherwise {@code null}
+     */
+    static Consumer<WebAsyncTaskRejectedException> forwardDiscard(Object task) {
+        return task instanceof DiscardableTask ? ((DiscardableTask) task)::discard : null;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+
+/**
+ * Queued task answered by its submitter when a saturated pool discards it, instead of being run.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public interface DiscardableTask {
+
+    /**
+     * Cancels the task, nothing being done when it already started.
+     * @param cause
+     */
+    void discard(WebAsyncTaskRejectedException cause);
+
+    /**
+     * Discards a task removed from a queue, a plain {@link Future} being cancelled and any other task dropped.
+     * @param task
+     * @param cause
+     */
+    static void discard(Runnable task, WebAsyncTaskRejectedException cause) {
+        if (task instanceof DiscardableTask) {
+            ((DiscardableTask) task).discard(cause);
+        } else if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    /**
+     * Discards the task queued first, whatever its priority.
+     * @param queue
+     * @param cause
+     * @return {@code false} when the queue is empty
+     */
+    static boolean discardOldest(BlockingQueue<Runnable> queue, WebAsyncTaskRejectedException cause) {
+        final Runnable oldest = queue instanceof PriorityTaskQueue ? ((PriorityTaskQueue) queue).pollOldest() : queue.poll();
+        if (oldest == null) {
+            return false;
+        }
+        discard(oldest, cause);
+        return true;
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+
+/**
+ * {@link WebAsyncTaskPool} backed by a {@link ForkJoinPool} in async mode: every worker has its own queue
+ * and steals from the others, without the single queue shared by the threads of a {@code ThreadPoolTaskExecutor}.
+ * The blocking sections of the tasks should be called through {@link #block(Callable)}
+ * so that the pool compensates the blocked worker. The priorities, the rejection policies and the autoscaling
+ * of the {@code ThreadPoolTaskExecutor} pools do not apply.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class ForkJoinPoolTaskExecutor extends ConcurrentTaskExecutor implements WebAsyncTaskPool, DisposableBean {
+
+    private final String executorName;
+    private final ForkJoinPool forkJoinPool;
+    private Long timeout;
+
+    /**
+     * @param executorName
+     */
+    public ForkJoinPoolTaskExecutor(String executorName) {
+        this(executorName, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executorName
+     * @param parallelism
+     */
+    public ForkJoinPoolTaskExecutor(String executorName, int parallelism) {
+        this(executorName, new ForkJoinPool(parallelism, new NamedWorkerThreadFactory(executorName + "-"), null, true));
+    }
+
+    private ForkJoinPoolTaskExecutor(String executorName, ForkJoinPool forkJoinPool) {
+        super(forkJoinPool);
+        this.executorName = executorName;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * @return
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    /**
+     * The task is run as a {@link FutureTask} so that {@code cancel(true)} interrupts the worker,
+     * which the {@code ForkJoinTask} returned by {@link ForkJoinPool#submit(Runnable)} does not.
+     */
+    @Override
+    public Future<?> submit(Runnable task) {
+        final FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * The task is run as a {@link FutureTask} so that {@code cancel(true)} interrupts the worker,
+     * which the {@code ForkJoinTask} returned by {@link ForkJoinPool#submit(Callable)} does not.
+     */
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public String getExecutorName() {
+        return executorName;
+    }
+
+    @Override
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public WebAsyncTaskPoolStats getStats() {
+        return new WebAsyncTaskPoolStats(forkJoinPool.getParallelism(), forkJoinPool.getParallelism(), null,
+                forkJoinPool.getPoolSize(), forkJoinPool.getActiveThreadCount(),
+                (int) Math.min(Integer.MAX_VALUE, forkJoinPool.getQueuedSubmissionCount() + forkJoinPool.getQueuedTaskCount()), null);
+    }
+
+    @Override
+    public void destroy() {
+        forkJoinPool.shutdown();
+    }
+
+    /**
+     * Calls a blocking section, as a {@link ForkJoinPool.ManagedBlocker} when called from a worker
+     * so that the pool may start a spare thread to keep its parallelism.
+     * @param <T>
+     * @param callable
+     * @return
+     * @throws Exception
+     */
+    public static <T> T block(Callable<T> callable) throws Exception {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+            return callable.call();
+        }
+        final CallableBlocker<T> blocker = new CallableBlocker<>(callable);
+        ForkJoinPool.managedBlock(blocker);
+        return blocker.getResult();
+    }
+
+    private static final class CallableBlocker<T> implements ForkJoinPool.ManagedBlocker {
+
+        private final Callable<T> callable;
+        private boolean done;
+        private T result;
+        private Exception exception;
+
+        private CallableBlocker(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                exception = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+
+        private T getResult() throws Exception {
+            if (exception != null) {
+                throw exception;
+            }
+            return result;
+        }
+
+    }
+
+    private static final class NamedWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final String threadNamePrefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private NamedWorkerThreadFactory(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + count.incrementAndGet());
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Task queued by a {@link PriorityThreadPoolTaskExecutor}, ordered by its aged priority then by its arrival.
+ * The {@link TaskDecorator} of the pool decorates its run, the task itself being queued.
+ * 
+ * @param <T>
+ * @since 
+ * @author Florian Lestic
+ */
+final class PriorityTask<T> extends DiscardableFutureTask<T> implements Comparable<PriorityTask<?>> {
+
+    private final int priority;
+    private long rank;
+    private long sequence;
+    private Runnable decorated;
+
+    PriorityTask(Callable<T> callable, int priority) {
+        super(callable);
+        this.priority = priority;
+    }
+
+    PriorityTask(Runnable runnable, int priority) {
+        super(runnable, null);
+        this.priority = priority;
+    }
+
+    /**
+     * Decorates the run of the task, once.
+     * @param decorator
+     */
+    void decorate(TaskDecorator decorator) {
+        if (decorated == null) {
+            decorated = decorator.decorate(super::run);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (decorated != null) {
+            decorated.run();
+        } else {
+            super.run();
+        }
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Called on enqueue: a task is ranked as if it had arrived one aging period earlier per level of priority,
+     * so a waiting task ends up ahead of any task of higher priority arriving later.
+     * @param now
+     * @param aging
+     * @param sequence
+     */
+    void enqueued(long now, long aging, long sequence) {
+        this.rank = now - priority * aging;
+        this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(PriorityTask<?> other) {
+        final int compare = Long.compare(rank - other.rank, 0);
+        return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+    }
+
+}
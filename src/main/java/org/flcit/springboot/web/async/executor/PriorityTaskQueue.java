@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.Collection;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, and resizable, {@link PriorityBlockingQueue} of {@link PriorityTask},
+ * created by the {@link PriorityThreadPoolTaskExecutor} so that the queue holds the submitted task itself.
+ * The timed offers and the puts wait for a removal while the queue is full.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class PriorityTaskQueue extends PriorityBlockingQueue<Runnable> implements ResizableQueue {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient QueueSpace space = new QueueSpace();
+    private volatile int capacity;
+    private final long aging;
+    private long sequence;
+
+    PriorityTaskQueue(int capacity, long aging) {
+        super(Math.min(capacity, 64), (a, b) -> ((PriorityTask<?>) a).compareTo((PriorityTask<?>) b));
+        this.capacity = capacity;
+        this.aging = aging;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the task is not a {@link PriorityTask}
+     */
+    @Override
+    public synchronized boolean offer(Runnable task) {
+        if (!(task instanceof PriorityTask)) {
+            throw new IllegalArgumentException("Only PriorityTask can be queued, not " + task);
+        }
+        if (size() >= capacity) {
+            return false;
+        }
+        ((PriorityTask<?>) task).enqueued(System.nanoTime(), aging, sequence++);
+        return super.offer(task);
+    }
+
+    /**
+     * As {@link PriorityBlockingQueue} does not declare it, an interruption keeps the interrupt status and returns {@code false}.
+     */
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) {
+        try {
+            return space.offer(() -> offer(task), unit.toNanos(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @throws IllegalStateException when interrupted, the task not being queued
+     */
+    @Override
+    public void put(Runnable task) {
+        try {
+            space.put(() -> offer(task));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the queue space", e);
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        final Runnable task = super.take();
+        space.signal();
+        return task;
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return signal(super.poll(timeout, unit));
+    }
+
+    @Override
+    public Runnable poll() {
+        return signal(super.poll());
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        return signal(super.remove(task));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Runnable> filter) {
+        return signal(super.removeIf(filter));
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> tasks, int maxElements) {
+        final int drained = super.drainTo(tasks, maxElements);
+        space.signal();
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        space.signal();
+    }
+
+    /**
+     * @return the task queued first, {@code null} when the queue is empty
+     */
+    Runnable pollOldest() {
+        while (true) {
+            PriorityTask<?> oldest = null;
+            for (Runnable task : this) {
+                if (oldest == null || ((PriorityTask<?>) task).getSequence() < oldest.getSequence()) {
+                    oldest = (PriorityTask<?>) task;
+                }
+            }
+            if (oldest == null || remove(oldest)) {
+                return oldest;
+            }
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+        space.signal();
+    }
+
+    private Runnable signal(Runnable removed) {
+        if (removed != null) {
+            space.signal();
+        }
+        return removed;
+    }
+
+    private boolean signal(boolean removed) {
+        if (removed) {
+            space.signal();
+        }
+        return removed;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * {@link WebAsyncThreadPoolTaskExecutor} whose queue serves the tasks by priority, the higher first.
+ * A queued task gains one level of priority per aging period so the low priority tasks cannot starve.
+ * Every task is queued as a {@link PriorityTask}, created on submission with the default priority when none is given,
+ * the {@link TaskDecorator} decorating its run instead of replacing it in the queue.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class PriorityThreadPoolTaskExecutor extends WebAsyncThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private final long aging;
+    private TaskDecorator taskDecorator;
+
+    /**
+     * @param executorName
+     * @param aging milliseconds a queued task waits to gain one level of priority
+     */
+    public PriorityThreadPoolTaskExecutor(String executorName, long aging) {
+        super(executorName);
+        this.aging = TimeUnit.MILLISECONDS.toNanos(aging);
+    }
+
+    /**
+     * Applied by the executor to the run of the {@link PriorityTask}s, the thread pool not decorating them.
+     */
+    @Override
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        final PriorityTask<?> priorityTask = task instanceof PriorityTask
+                ? (PriorityTask<?>) task
+                : new PriorityTask<>(task, DEFAULT_PRIORITY);
+        if (taskDecorator != null) {
+            priorityTask.decorate(taskDecorator);
+        }
+        super.execute(priorityTask);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return submit(new PriorityTask<>(task, DEFAULT_PRIORITY));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return submit(new PriorityTask<>(task, DEFAULT_PRIORITY));
+    }
+
+    @Override
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        return new PriorityTaskQueue(queueCapacity > 0 ? queueCapacity : 1, aging);
+    }
+
+    /**
+     * @param priority
+     * @return a view of the executor submitting its tasks with the priority
+     */
+    public AsyncTaskExecutor withPriority(int priority) {
+        return priority == DEFAULT_PRIORITY ? this : new PriorityView(priority);
+    }
+
+    private <T> Future<T> submit(PriorityTask<T> task) {
+        execute(task);
+        return task;
+    }
+
+    private final class PriorityView implements AsyncTaskExecutor {
+
+        private final int priority;
+
+        private PriorityView(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            submit(task);
+        }
+
+        @Override
+        public void execute(Runnable task, long startTimeout) {
+            submit(task);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return PriorityThreadPoolTaskExecutor.this.submit(new PriorityTask<>(task, priority));
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return PriorityThreadPoolTaskExecutor.this.submit(new PriorityTask<>(task, priority));
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Space of a bounded task queue, the offers waiting on it being signaled by each removal.
+ * The removals do not lock while no offer waits.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class QueueSpace {
+
+    private volatile int waiters;
+
+    /**
+     * @param offer
+     * @param nanos
+     * @return {@code false} when the queue stayed full for the whole timeout
+     * @throws InterruptedException
+     */
+    boolean offer(BooleanSupplier offer, long nanos) throws InterruptedException {
+        if (offer.getAsBoolean()) {
+            return true;
+        }
+        final long deadline = System.nanoTime() + nanos;
+        synchronized (this) {
+            waiters++;
+            try {
+                while (!offer.getAsBoolean()) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                return true;
+            } finally {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * @param offer
+     * @throws InterruptedException
+     */
+    void put(BooleanSupplier offer) throws InterruptedException {
+        if (offer.getAsBoolean()) {
+            return;
+        }
+        synchronized (this) {
+            waiters++;
+            try {
+                while (!offer.getAsBoolean()) {
+                    wait();
+                }
+            } finally {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * Called after a removal or a growth of the capacity.
+     */
+    void signal() {
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * {@link SimpleAsyncTaskExecutor} starting a new virtual thread per task.
+ * Virtual threads are looked up by reflection so that the Java 8 baseline is kept.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "web-async-virtual-";
+
+    private static final boolean SUPPORTED = createVirtualThreadFactory(DEFAULT_THREAD_NAME_PREFIX) != null;
+
+    /**
+     * 
+     */
+    public VirtualThreadTaskExecutor() {
+        this(DEFAULT_THREAD_NAME_PREFIX);
+    }
+
+    /**
+     * @param threadNamePrefix
+     */
+    public VirtualThreadTaskExecutor(String threadNamePrefix) {
+        super(getVirtualThreadFactory(threadNamePrefix));
+        setThreadNamePrefix(threadNamePrefix);
+    }
+
+    /**
+     * @return
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    private static ThreadFactory getVirtualThreadFactory(String threadNamePrefix) {
+        final ThreadFactory threadFactory = createVirtualThreadFactory(threadNamePrefix);
+        if (threadFactory == null) {
+            throw new IllegalStateException("Virtual threads are not supported by this JVM (JDK 21+ required)");
+        }
+        return threadFactory;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // JDK < 19, or JDK 19/20 without --enable-preview
+            return null;
+        }
+    }
+
+}
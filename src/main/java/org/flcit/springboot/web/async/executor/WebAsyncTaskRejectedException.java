@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Task refused before reaching the executor, answered with a 503.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WebAsyncTaskRejectedException extends TaskRejectedException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long retryAfter;
+
+    /**
+     * @param msg
+     */
+    public WebAsyncTaskRejectedException(String msg) {
+        this(msg, null);
+    }
+
+    /**
+     * @param msg
+     * @param retryAfter seconds after which the request may be retried, {@code null} when unknown
+     */
+    public WebAsyncTaskRejectedException(String msg, Long retryAfter) {
+        super(msg);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return seconds after which the request may be retried, {@code null} when unknown
+     */
+    public Long getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+import org.flcit.springboot.web.async.util.ThreadPoolTaskExecutorUtils;
+
+/**
+ * {@link ThreadPoolTaskExecutor} declared from the async.web.pools.&lt;name&gt;.* properties,
+ * whose sizes and queue capacity can be changed while it runs.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncThreadPoolTaskExecutor extends ThreadPoolTaskExecutor implements WebAsyncTaskPool {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String executorName;
+    private final LongAdder rejected = new LongAdder();
+    private Long timeout;
+
+    /**
+     * @param executorName
+     */
+    public WebAsyncThreadPoolTaskExecutor(String executorName) {
+        this.executorName = executorName;
+        setThreadNamePrefix(executorName + "-");
+    }
+
+    @Override
+    public String getExecutorName() {
+        return executorName;
+    }
+
+    @Override
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            super.execute(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task) {
+        final ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+        final ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * The task is discardable by a {@link org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy#DISCARD_OLDEST} pool.
+     */
+    @Override
+    public Future<?> submit(Runnable task) {
+        final DiscardableFutureTask<Object> future = new DiscardableFutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * The task is discardable by a {@link org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy#DISCARD_OLDEST} pool.
+     */
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        final DiscardableFutureTask<T> future = new DiscardableFutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * @return tasks refused by the pool, the ones run by the caller or queued after a wait of the rejection policy not being counted
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * The default unbounded queue is kept, a bounded queue being resizable.
+     */
+    @Override
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        return queueCapacity > 0 && queueCapacity < Integer.MAX_VALUE ? new BoundedTaskQueue(queueCapacity) : super.createQueue(queueCapacity);
+    }
+
+    @Override
+    public WebAsyncTaskPoolStats getStats() {
+        final BlockingQueue<Runnable> queue = getThreadPoolExecutor().getQueue();
+        return ThreadPoolTaskExecutorUtils.getStats(this, queue instanceof ResizableQueue ? ((ResizableQueue) queue).getCapacity() : getQueueCapacity());
+    }
+
+    @Override
+    public synchronized void resize(Integer coreSize, Integer maxSize, Integer queueCapacity) {
+        final BlockingQueue<Runnable> queue = getThreadPoolExecutor().getQueue();
+        if (queueCapacity != null) {
+            Assert.isTrue(queueCapacity > 0, "Queue capacity must be positive");
+            Assert.state(queue instanceof ResizableQueue, () -> "Pool " + executorName + " was created without bounded queue");
+        }
+        ThreadPoolTaskExecutorUtils.resize(this, executorName, coreSize, maxSize);
+        if (queueCapacity != null) {
+            ((ResizableQueue) queue).setCapacity(queueCapacity);
+            setQueueCapacity(queueCapacity);
+        }
+    }
+
+}
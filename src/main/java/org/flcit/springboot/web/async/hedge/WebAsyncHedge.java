@@ -0,0 +1,247 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+import org.flcit.springboot.web.async.util.WebAsyncTimeoutUtils;
+
+/**
+ * Hedged submission of idempotent callables: a second copy is submitted to the executor when the first one
+ * has not completed after the delay, the first result winning and the other copy being cancelled.
+ * The delay is the percentile of the latencies of the last calls, never lower than the min delay,
+ * or the min delay alone with a percentile of {@code 0}. A latency runs from the submission of the first copy
+ * to the first result, or to the cancellation of the call as a lower bound, so the slow first copies beaten by
+ * their second copy, or cancelled on timeout, are not left out; the failed calls are not recorded.
+ * The second copy is handed off by the shared timer to a thread submitting it, never run there: rejected, discarded,
+ * or run on that thread by the rejection policy of a saturated pool, it is given up, the first copy keeping running.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncHedge {
+
+    private static final int WINDOW = 1024;
+    private static final int REFRESH = 64;
+
+    private final AsyncTaskExecutor executor;
+    private final double percentile;
+    private final long minDelay;
+    private final long[] latencies = new long[WINDOW];
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private long recorded;
+    private volatile long delay;
+
+    /**
+     * @param executor executor of the copies
+     * @param percentile percentile of the latencies after which a second copy is submitted, {@code 0} for the min delay alone
+     * @param minDelay minimum milliseconds before a second copy is submitted
+     */
+    public WebAsyncHedge(AsyncTaskExecutor executor, double percentile, long minDelay) {
+        Assert.isTrue(percentile >= 0 && percentile < 100, "percentile must be between 0 and 100");
+        Assert.isTrue(minDelay >= 0, "minDelay must not be negative");
+        Assert.isTrue(percentile > 0 || minDelay > 0, "percentile or minDelay must be positive");
+        this.executor = executor;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.delay = percentile > 0 ? 0 : minDelay;
+    }
+
+    /**
+     * @param <V>
+     * @param callable
+     * @return the first result of the copies, cancelling the copies still running once completed or cancelled
+     */
+    public <V> CompletableFuture<V> submit(Callable<V> callable) {
+        final Hedged<V> hedgedTask = new Hedged<>(callable);
+        hedgedTask.submit();
+        return hedgedTask.result;
+    }
+
+    /**
+     * @return
+     */
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return milliseconds after which a second copy is submitted, {@code 0} while too few latencies are recorded
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * @return second copies submitted
+     */
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    /**
+     * @return second copies completing first
+     */
+    public long getWonCount() {
+        return won.sum();
+    }
+
+    /**
+     * Records the latency of a call, the delay being refreshed every {@value #REFRESH} latencies
+     * from the last {@value #WINDOW} ones.
+     * @param latency nanoseconds since the submission of the first copy
+     */
+    void record(long latency) {
+        if (percentile == 0) {
+            return;
+        }
+        final long[] window;
+        synchronized (latencies) {
+            latencies[(int) (recorded % WINDOW)] = latency;
+            window = ++recorded % REFRESH == 0 ? Arrays.copyOf(latencies, (int) Math.min(recorded, WINDOW)) : null;
+        }
+        if (window != null) {
+            Arrays.sort(window);
+            final long value = window[Math.max(0, (int) Math.ceil(percentile / 100 * window.length) - 1)];
+            delay = Math.max(minDelay, Math.max(1, (value + 999_999) / 1_000_000));
+        }
+    }
+
+    private final class Hedged<V> {
+
+        private final Callable<V> callable;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final long submitted = System.nanoTime();
+        private final Future<?>[] futures = new Future<?>[2];
+        private final Thread[] runners = new Thread[2];
+        private int running = 1;
+        private Throwable failure;
+
+        private Hedged(Callable<V> callable) {
+            this.callable = callable;
+        }
+
+        private void submit() {
+            result.whenComplete((value, ex) -> {
+                if (ex == null || ex instanceof CancellationException) {
+                    record(System.nanoTime() - submitted);
+                }
+                cancel();
+            });
+            try {
+                submit(0);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+            final long current = delay;
+            if (current > 0 && !result.isDone()) {
+                final ScheduledFuture<?> timer = WebAsyncTimeoutUtils.schedule(this::hedge, current);
+                result.whenComplete((value, ex) -> timer.cancel(false));
+            }
+        }
+
+        /**
+         * Hands the second copy off unless completed, the first copy keeping running when the executor rejects it.
+         */
+        private void hedge() {
+            synchronized (this) {
+                if (result.isDone() || running == 0) {
+                    return;
+                }
+                running++;
+            }
+            WebAsyncTimeoutUtils.handOff(() -> {
+                try {
+                    submit(1);
+                    hedged.increment();
+                } catch (RuntimeException e) {
+                    fail(null);
+                }
+            });
+        }
+
+        private void submit(int index) {
+            final Future<?> future = AsyncTaskExecutorUtils.submit(executor, () -> run(index), this::fail);
+            synchronized (this) {
+                futures[index] = future;
+            }
+            if (result.isDone()) {
+                cancel();
+            }
+        }
+
+        private void run(int index) {
+            synchronized (this) {
+                runners[index] = Thread.currentThread();
+            }
+            try {
+                if (result.complete(callable.call()) && index == 1) {
+                    won.increment();
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                synchronized (this) {
+                    runners[index] = null;
+                }
+            }
+        }
+
+        /**
+         * Fails the result with the failure of a copy once no copy is running anymore.
+         * @param e failure or discard of a copy, {@code null} when the second copy was rejected
+         */
+        private void fail(Throwable e) {
+            final Throwable last;
+            synchronized (this) {
+                if (e != null) {
+                    failure = e;
+                }
+                last = --running == 0 ? failure : null;
+            }
+            if (last != null) {
+                result.completeExceptionally(last);
+            }
+        }
+
+        /**
+         * Cancels the copies still running, except the one completing on the current thread.
+         */
+        private synchronized void cancel() {
+            final Thread current = Thread.currentThread();
+            for (int i = 0; i < futures.length; i++) {
+                if (futures[i] != null && runners[i] != current) {
+                    futures[i].cancel(true);
+                }
+            }
+        }
+
+    }
+
+}
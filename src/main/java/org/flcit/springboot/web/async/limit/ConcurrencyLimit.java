@@ -0,0 +1,39 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.limit;
+
+/**
+ * Concurrency limit adjusted from the samples of the completed tasks.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * @return the current maximum number of in-flight tasks
+     */
+    int getLimit();
+
+    /**
+     * @param latency nanoseconds between the submission and the completion of the task
+     * @param inFlight number of in-flight tasks when the task was submitted
+     * @param dropped whether the task was cancelled, rejected or exceeded the latency threshold
+     */
+    void onSample(long latency, int inFlight, boolean dropped);
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+/**
+ * Records, per executor and handler method, the queue wait, the execution time,
+ * the timeouts, the errors, the rejections and the in-flight count of the {@code WebAsyncTask}s sent by {@code WebAsyncTaskService}.
+ * The tasks only returning a result computed elsewhere (coalesced, batched, hedged, fanned out or cached calls)
+ * record the wait for that result as {@code web.async.task.completion} instead of a queue wait and an execution time.
+ * The {@code CompletableFuture}, {@code DeferredResult}, {@code StreamingResponseBody} and {@code ResponseBodyEmitter}
+ * responses, not processed as a {@code Callable} by Spring MVC, are not measured.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncTaskMetricsInterceptor implements WebAsyncTaskInterceptor {
+
+    public static final String METRIC_PREFIX = "web.async.task";
+    public static final String TAG_EXECUTOR = "executor";
+    public static final String TAG_HANDLER = "handler";
+
+    private static final String STATE_ATTRIBUTE = WebAsyncTaskMetricsInterceptor.class.getName() + ".STATE";
+    private static final String NO_HANDLER = "none";
+
+    private final MeterRegistry registry;
+    private final Map<MetersKey, TaskMeters> meters = new ConcurrentHashMap<>(16);
+
+    /**
+     * @param registry
+     */
+    public WebAsyncTaskMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (!(task instanceof WebAsyncTaskCallable)) {
+            return;
+        }
+        final WebAsyncTaskCallable<?> callable = (WebAsyncTaskCallable<?>) task;
+        final TaskMeters taskMeters = getMeters(callable.getExecutorName(), getHandler(request));
+        taskMeters.inFlight.incrementAndGet();
+        request.setAttribute(STATE_ATTRIBUTE, new TaskState(taskMeters, callable.isCompletion(), System.nanoTime()), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        final TaskState state = getState(request);
+        // a discarded task is run at once to answer its rejection, never having waited for a thread
+        if (state != null && ((WebAsyncTaskCallable<?>) task).getDiscarded() == null) {
+            state.start = System.nanoTime();
+            (state.completion ? state.meters.completion : state.meters.queue).record(state.start - state.enqueue, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        final TaskState state = getState(request);
+        if (state == null) {
+            return;
+        }
+        // a completion task gets the rejection of the shared submission as its result
+        if (concurrentResult instanceof RejectedExecutionException && (state.start == 0 || state.completion)) {
+            state.meters.rejected.increment();
+            return;
+        }
+        if (state.start == 0) {
+            return;
+        }
+        if (!state.completion) {
+            state.meters.execution.record(System.nanoTime() - state.start, TimeUnit.NANOSECONDS);
+        }
+        if (concurrentResult instanceof Throwable) {
+            state.meters.errors.increment();
+        }
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        final TaskState state = getState(request);
+        if (state != null) {
+            state.meters.timeouts.increment();
+        }
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        final TaskState state = getState(request);
+        if (state != null) {
+            state.meters.errors.increment();
+        }
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        final TaskState state = getState(request);
+        if (state != null) {
+            request.removeAttribute(STATE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            state.meters.inFlight.decrementAndGet();
+        }
+    }
+
+    private static TaskState getState(NativeWebRequest request) {
+        return (TaskState) request.getAttribute(STATE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static Method getHandler(NativeWebRequest request) {
+        final Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod() : null;
+    }
+
+    private TaskMeters getMeters(String executorName, Method handler) {
+        return meters.computeIfAbsent(new MetersKey(executorName, handler), this::createMeters);
+    }
+
+    private TaskMeters createMeters(MetersKey key) {
+        final Tags tags = Tags.of(TAG_EXECUTOR, key.executorName,
+                TAG_HANDLER, key.handler != null ? key.handler.getDeclaringClass().getSimpleName() + "#" + key.handler.getName() : NO_HANDLER);
+        final AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder(METRIC_PREFIX + ".active", inFlight, AtomicInteger::get)
+            .description("Tasks sent and not yet completed")
+            .tags(tags)
+            .register(registry);
+        return new TaskMeters(
+                Timer.builder(METRIC_PREFIX + ".queue").description("Time spent waiting for a thread of the executor").tags(tags).register(registry),
+                Timer.builder(METRIC_PREFIX + ".execution").description("Execution time of the task").tags(tags).register(registry),
+                Timer.builder(METRIC_PREFIX + ".completion").description("Time spent waiting for a result computed elsewhere").tags(tags).register(registry),
+                Counter.builder(METRIC_PREFIX + ".timeouts").description("Tasks timed out").tags(tags).register(registry),
+                Counter.builder(METRIC_PREFIX + ".errors").description("Tasks completed with an error").tags(tags).register(registry),
+                Counter.builder(METRIC_PREFIX + ".rejected").description("Tasks rejected by the executor").tags(tags).register(registry),
+                inFlight);
+    }
+
+    private static final class MetersKey {
+
+        private final String executorName;
+        private final Method handler;
+
+        private MetersKey(String executorName, Method handler) {
+            this.executorName = executorName;
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MetersKey)) {
+                return false;
+            }
+            final MetersKey other = (MetersKey) obj;
+            return executorName.equals(other.executorName) && Objects.equals(handler, other.handler);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * executorName.hashCode() + Objects.hashCode(handler);
+        }
+
+    }
+
+    private static final class TaskMeters {
+
+        private final Timer queue;
+        private final Timer execution;
+        private final Timer completion;
+        private final Counter timeouts;
+        private final Counter errors;
+        private final Counter rejected;
+        private final AtomicInteger inFlight;
+
+        private TaskMeters(Timer queue, Timer execution, Timer completion, Counter timeouts, Counter errors, Counter rejected, AtomicInteger inFlight) {
+            this.queue = queue;
+            this.execution = execution;
+            this.completion = completion;
+            this.timeouts = timeouts;
+            this.errors = errors;
+            this.rejected = rejected;
+            this.inFlight = inFlight;
+        }
+
+    }
+
+    private static final class TaskState {
+
+        private final TaskMeters meters;
+        private final boolean completion;
+        private final long enqueue;
+        private volatile long start;
+
+        private TaskState(TaskMeters meters, boolean completion, long enqueue) {
+            this.meters = meters;
+            this.completion = completion;
+            this.enqueue = enqueue;
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.metrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.executor.ConcurrencyLimitTaskExecutor;
+import org.flcit.springboot.web.async.executor.ForkJoinPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.WebAsyncThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectedExecutionHandler;
+
+/**
+ * Binds the active, queued and pool size gauges of every {@link WebAsyncTaskPool} backed by a {@link ThreadPoolTaskExecutor}
+ * or a {@link ForkJoinPoolTaskExecutor}, and the rejected counter of the {@link WebAsyncThreadPoolTaskExecutor} ones.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncTaskPoolMetrics implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "web.async.pool";
+
+    private final ObjectProvider<WebAsyncTaskPool> pools;
+
+    /**
+     * @param pools
+     */
+    public WebAsyncTaskPoolMetrics(ObjectProvider<WebAsyncTaskPool> pools) {
+        this.pools = pools;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pools.orderedStream().forEach(pool -> {
+            Object executor = pool;
+            if (executor instanceof ConcurrencyLimitTaskExecutor) {
+                bindTo(registry, (ConcurrencyLimitTaskExecutor) executor);
+                executor = ((ConcurrencyLimitTaskExecutor) executor).getDelegate();
+            }
+            if (executor instanceof ThreadPoolTaskExecutor) {
+                bindTo(registry, pool.getExecutorName(), ((ThreadPoolTaskExecutor) executor).getThreadPoolExecutor());
+                if (executor instanceof WebAsyncThreadPoolTaskExecutor) {
+                    bindTo(registry, pool.getExecutorName(), (WebAsyncThreadPoolTaskExecutor) executor);
+                }
+            } else if (executor instanceof ForkJoinPoolTaskExecutor) {
+                bindTo(registry, pool.getExecutorName(), ((ForkJoinPoolTaskExecutor) executor).getForkJoinPool());
+            }
+        });
+    }
+
+    private static void bindTo(MeterRegistry registry, ConcurrencyLimitTaskExecutor executor) {
+        final Tags tags = Tags.of(WebAsyncTaskMetricsInterceptor.TAG_EXECUTOR, executor.getExecutorName());
+        Gauge.builder(METRIC_PREFIX + ".limit", executor, ConcurrencyLimitTaskExecutor::getLimit)
+            .description("Current concurrency limit")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".limit.inflight", executor, ConcurrencyLimitTaskExecutor::getInFlight)
+            .description("Tasks admitted by the concurrency limit and not yet completed")
+            .tags(tags)
+            .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".limit.rejected", executor, ConcurrencyLimitTaskExecutor::getRejectedCount)
+            .description("Tasks rejected by the concurrency limit")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private static void bindTo(MeterRegistry registry, String executorName, ThreadPoolExecutor executor) {
+        final Tags tags = Tags.of(WebAsyncTaskMetricsInterceptor.TAG_EXECUTOR, executorName);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Threads actively executing tasks")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queued", executor, e -> e.getQueue().size())
+            .description("Tasks waiting in the queue")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", executor, ThreadPoolExecutor::getPoolSize)
+            .description("Current number of threads in the pool")
+            .tags(tags)
+            .register(registry);
+    }
+
+    /**
+     * The rejected counter does not replace the {@link RejectedExecutionHandler} of the pool:
+     * it counts the tasks refused by the pool, and the ones discarded by a {@link WebAsyncRejectedExecutionHandler}.
+     * @param registry
+     * @param executorName
+     * @param executor
+     */
+    private static void bindTo(MeterRegistry registry, String executorName, WebAsyncThreadPoolTaskExecutor executor) {
+        final Tags tags = Tags.of(WebAsyncTaskMetricsInterceptor.TAG_EXECUTOR, executorName);
+        final RejectedExecutionHandler handler = executor.getThreadPoolExecutor().getRejectedExecutionHandler();
+        final WebAsyncRejectedExecutionHandler webAsyncHandler = handler instanceof WebAsyncRejectedExecutionHandler
+                ? (WebAsyncRejectedExecutionHandler) handler
+                : null;
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", executor,
+                e -> e.getRejectedCount() + (webAsyncHandler != null ? webAsyncHandler.getShedCount() : 0))
+            .description("Tasks rejected or discarded by the pool")
+            .tags(tags)
+            .register(registry);
+        if (webAsyncHandler != null) {
+            bindTo(registry, tags, webAsyncHandler);
+        }
+    }
+
+    private static void bindTo(MeterRegistry registry, Tags tags, WebAsyncRejectedExecutionHandler handler) {
+        final Tags policyTags = tags.and("policy", handler.getPolicy().name().toLowerCase());
+        bindOutcome(registry, policyTags, "rejected", handler, WebAsyncRejectedExecutionHandler::getRejectedCount);
+        bindOutcome(registry, policyTags, "caller_runs", handler, WebAsyncRejectedExecutionHandler::getCallerRunsCount);
+        bindOutcome(registry, policyTags, "waited", handler, WebAsyncRejectedExecutionHandler::getWaitedCount);
+        bindOutcome(registry, policyTags, "shed", handler, WebAsyncRejectedExecutionHandler::getShedCount);
+    }
+
+    private static void bindOutcome(MeterRegistry registry, Tags tags, String outcome, WebAsyncRejectedExecutionHandler handler,
+            ToDoubleFunction<WebAsyncRejectedExecutionHandler> count) {
+        FunctionCounter.builder(METRIC_PREFIX + ".rejection", handler, count)
+            .description("Saturated pool submissions by outcome of the rejection policy")
+            .tags(tags.and("outcome", outcome))
+            .register(registry);
+    }
+
+    private static void bindTo(MeterRegistry registry, String executorName, ForkJoinPool executor) {
+        final Tags tags = Tags.of(WebAsyncTaskMetricsInterceptor.TAG_EXECUTOR, executorName);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ForkJoinPool::getActiveThreadCount)
+            .description("Threads actively executing tasks")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queued", executor, e -> e.getQueuedSubmissionCount() + e.getQueuedTaskCount())
+            .description("Tasks waiting in the queue")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", executor, ForkJoinPool::getPoolSize)
+            .description("Current number of threads in the pool")
+            .tags(tags)
+            .register(registry);
+    }
+
+}
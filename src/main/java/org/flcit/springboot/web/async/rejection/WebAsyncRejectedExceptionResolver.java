@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.rejection;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+
+/**
+ * Adds the {@code Retry-After} header of a {@link WebAsyncTaskRejectedException}, the 503 being answered
+ * by the resolvers that follow.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncRejectedExceptionResolver implements HandlerExceptionResolver {
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Throwable cause = ex;
+        while (cause != null && !(cause instanceof WebAsyncTaskRejectedException)) {
+            cause = cause.getCause();
+        }
+        if (cause != null && ((WebAsyncTaskRejectedException) cause).getRetryAfter() != null && !response.isCommitted()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(((WebAsyncTaskRejectedException) cause).getRetryAfter()));
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.rejection;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.executor.DiscardableTask;
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+import org.flcit.springboot.web.async.util.WebAsyncTimeoutUtils;
+
+/**
+ * {@link RejectedExecutionHandler} applying a {@link WebAsyncRejectionPolicy}, counting each outcome.
+ * The tasks discarded by {@link WebAsyncRejectionPolicy#DISCARD_OLDEST} are never run:
+ * a {@link DiscardableTask} fails with a {@link WebAsyncTaskRejectedException}, any other {@code Future} is cancelled.
+ * The tasks submitted by the threads of {@link WebAsyncTimeoutUtils} are rejected instead of being run by the caller or waiting.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final String executorName;
+    private final WebAsyncRejectionPolicy policy;
+    private final Long retryAfter;
+    private final long budget;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * @param executorName
+     * @param policy
+     * @param retryAfter seconds sent in the {@code Retry-After} header of the 503, {@code null} for none
+     * @param budget milliseconds a caller may run or wait for a task
+     */
+    public WebAsyncRejectedExecutionHandler(String executorName, WebAsyncRejectionPolicy policy, Long retryAfter, long budget) {
+        Assert.notNull(policy, "policy must not be null");
+        this.executorName = executorName;
+        this.policy = policy;
+        this.retryAfter = retryAfter;
+        this.budget = budget;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown() || (WebAsyncTimeoutUtils.isTimerThread() && (policy == WebAsyncRejectionPolicy.CALLER_RUNS
+                || policy == WebAsyncRejectionPolicy.WAIT))) {
+            // the timer and its hand-off threads neither run a task nor wait, as for the flushes of the batches
+            throw reject();
+        }
+        switch (policy) {
+            case CALLER_RUNS:
+                callerRuns.increment();
+                runWithBudget(task);
+                break;
+            case WAIT:
+                waitForQueue(task, executor.getQueue());
+                waited.increment();
+                break;
+            case DISCARD_OLDEST:
+                if (!DiscardableTask.discardOldest(executor.getQueue(),
+                        new WebAsyncTaskRejectedException("Task discarded by executor " + executorName, retryAfter))) {
+                    throw reject();
+                }
+                shed.increment();
+                executor.execute(task);
+                break;
+            default:
+                throw reject();
+        }
+    }
+
+    private void runWithBudget(Runnable task) {
+        if (budget <= 0) {
+            task.run();
+            return;
+        }
+        final Thread caller = Thread.currentThread();
+        final boolean[] running = { true };
+        final ScheduledFuture<?> timer = WebAsyncTimeoutUtils.schedule(() -> {
+            synchronized (running) {
+                if (running[0]) {
+                    caller.interrupt();
+                }
+            }
+        }, budget);
+        try {
+            task.run();
+        } finally {
+            synchronized (running) {
+                running[0] = false;
+            }
+            if (!timer.cancel(false)) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void waitForQueue(Runnable task, BlockingQueue<Runnable> queue) {
+        try {
+            if (queue.offer(task, budget, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw reject();
+    }
+
+    private WebAsyncTaskRejectedException reject() {
+        rejected.increment();
+        return new WebAsyncTaskRejectedException("Executor " + executorName + " saturated", retryAfter);
+    }
+
+    /**
+     * @return
+     */
+    public WebAsyncRejectionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return tasks answered with a 503 without waiting or after the wait budget
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return tasks run by the submitting thread
+     */
+    public long getCallerRunsCount() {
+        return callerRuns.sum();
+    }
+
+    /**
+     * @return tasks queued after a wait
+     */
+    public long getWaitedCount() {
+        return waited.sum();
+    }
+
+    /**
+     * @return queued tasks discarded for newer ones
+     */
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+}
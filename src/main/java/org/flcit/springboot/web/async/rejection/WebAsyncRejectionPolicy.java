@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.rejection;
+
+/**
+ * What a saturated pool does with a task it cannot queue.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public enum WebAsyncRejectionPolicy {
+
+    /**
+     * The {@code TaskRejectedException} of Spring.
+     */
+    ABORT,
+    /**
+     * A 503 answered at once, with a {@code Retry-After} header when configured.
+     */
+    REJECT,
+    /**
+     * The task run by the submitting thread, interrupted once the budget is spent.
+     */
+    CALLER_RUNS,
+    /**
+     * The submitting thread waiting for a place in the queue during the budget, rejected with a 503 after.
+     */
+    WAIT,
+    /**
+     * The task queued first, whatever its priority, discarded without being run to make room for the task,
+     * its request being answered with a 503.
+     */
+    DISCARD_OLDEST
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Callable of a {@code WebAsyncTask} run by a {@link CompletionTaskExecutor},
+ * returning the completed result or throwing its exception.
+ * 
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+final class CompletionCallable<V> extends WebAsyncTaskCallable<V> {
+
+    private final CompletableFuture<V> result;
+
+    CompletionCallable(AsyncTaskExecutor executor, CompletableFuture<V> result) {
+        super(null, executor);
+        this.result = result;
+    }
+
+    @Override
+    public boolean isCompletion() {
+        return true;
+    }
+
+    @Override
+    public V call() throws Exception {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Executor of a {@code WebAsyncTask} waiting for a result computed elsewhere:
+ * its task is run once the result is completed, without holding a thread meanwhile.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class CompletionTaskExecutor implements AsyncTaskExecutor {
+
+    private final CompletableFuture<?> result;
+
+    CompletionTaskExecutor(CompletableFuture<?> result) {
+        this.result = result;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        result.whenComplete((value, ex) -> task.run());
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        execute(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        final FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+}
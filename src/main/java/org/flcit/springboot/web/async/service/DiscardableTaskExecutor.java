@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import org.flcit.springboot.web.async.executor.DiscardableFutureTask;
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+
+/**
+ * Executor of a {@code WebAsyncTask} submitting its task to the target as a {@link DiscardableFutureTask}:
+ * when a saturated pool discards it, the {@link WebAsyncTaskCallable} is marked as discarded
+ * and the task is run at once by the discarding thread, the request being answered with the rejection.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class DiscardableTaskExecutor implements AsyncTaskExecutor {
+
+    private final AsyncTaskExecutor target;
+    private final WebAsyncTaskCallable<?> callable;
+
+    DiscardableTaskExecutor(AsyncTaskExecutor target, WebAsyncTaskCallable<?> callable) {
+        this.target = target;
+        this.callable = callable;
+    }
+
+    AsyncTaskExecutor getTarget() {
+        return target;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(task);
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        submit(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        final DiscardableFutureTask<Object> future = new DiscardableFutureTask<>(task, null, cause -> {
+            callable.discard(cause);
+            task.run();
+        });
+        target.execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        final DiscardableFutureTask<T> future = new DiscardableFutureTask<>(task, cause -> discard(task, cause));
+        target.execute(future);
+        return future;
+    }
+
+    private void discard(Callable<?> task, WebAsyncTaskRejectedException cause) {
+        callable.discard(cause);
+        try {
+            task.call();
+        } catch (Exception e) {
+            // the future is already cancelled, the failure only answers the request
+        }
+    }
+
+}
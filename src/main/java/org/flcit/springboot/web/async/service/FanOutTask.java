@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import org.flcit.springboot.web.async.context.WebAsyncContextSnapshot;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+import org.flcit.springboot.web.async.util.WebAsyncTimeoutUtils;
+
+/**
+ * Runs the callables of a fan-out in parallel and completes with their results aggregated by the {@link WebAsyncFanOut},
+ * the callables still running being cancelled once completed.
+ * 
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+final class FanOutTask<V> {
+
+    private final WebAsyncFanOut fanOut;
+    private final Object[] results;
+    private final List<V> firsts;
+    private final Future<?>[] futures;
+    private final Thread[] runners;
+    private final CompletableFuture<List<V>> result = new CompletableFuture<>();
+    private int succeeded;
+    private int failed;
+
+    private FanOutTask(WebAsyncFanOut fanOut, int size) {
+        this.fanOut = fanOut;
+        this.results = new Object[size];
+        this.firsts = fanOut.getMode() == WebAsyncFanOut.Mode.FIRST ? new ArrayList<>(fanOut.getCount()) : null;
+        this.futures = new Future<?>[size];
+        this.runners = new Thread[size];
+    }
+
+    static <V> FanOutTask<V> submit(AsyncTaskExecutor executor, WebAsyncFanOut fanOut, List<? extends Callable<? extends V>> callables,
+            WebAsyncContextSnapshot context) {
+        final FanOutTask<V> task = new FanOutTask<>(fanOut, callables.size());
+        task.submit(executor, callables, context);
+        return task;
+    }
+
+    CompletableFuture<List<V>> getResult() {
+        return result;
+    }
+
+    /**
+     * Cancels the callables still running, except the one completing the fan-out on the current thread.
+     */
+    synchronized void cancel() {
+        final Thread current = Thread.currentThread();
+        for (int i = 0; i < futures.length; i++) {
+            if (futures[i] != null && runners[i] != current) {
+                futures[i].cancel(true);
+            }
+        }
+    }
+
+    private void submit(AsyncTaskExecutor executor, List<? extends Callable<? extends V>> callables, WebAsyncContextSnapshot context) {
+        if (callables.isEmpty() || (firsts != null && fanOut.getCount() > callables.size())) {
+            result.completeExceptionally(new IllegalArgumentException("Not enough callables for the fan-out"));
+            return;
+        }
+        result.whenComplete((value, ex) -> cancel());
+        if (fanOut.getMode() == WebAsyncFanOut.Mode.PARTIAL) {
+            final ScheduledFuture<?> timer = WebAsyncTimeoutUtils.schedule(this::completePartial, fanOut.getWait());
+            result.whenComplete((value, ex) -> timer.cancel(false));
+        }
+        try {
+            for (int i = 0; i < callables.size() && !result.isDone(); i++) {
+                final int index = i;
+                final Callable<? extends V> callable = callables.get(i);
+                final Future<?> future = AsyncTaskExecutorUtils.submit(executor, context.wrap(() -> {
+                    synchronized (this) {
+                        runners[index] = Thread.currentThread();
+                    }
+                    try {
+                        onSuccess(index, callable.call());
+                    } catch (Throwable e) {
+                        onFailure(e);
+                    } finally {
+                        synchronized (this) {
+                            runners[index] = null;
+                        }
+                    }
+                }), this::onFailure);
+                synchronized (this) {
+                    futures[index] = future;
+                }
+            }
+            if (result.isDone()) {
+                cancel();
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onSuccess(int index, V value) {
+        final List<V> completed;
+        synchronized (this) {
+            results[index] = value;
+            succeeded++;
+            if (firsts != null) {
+                firsts.add(value);
+                completed = firsts.size() == fanOut.getCount() ? new ArrayList<>(firsts) : null;
+            } else {
+                completed = succeeded + failed == results.length ? (List<V>) Arrays.asList(results.clone()) : null;
+            }
+        }
+        if (completed != null) {
+            result.complete(Collections.unmodifiableList(completed));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onFailure(Throwable e) {
+        final List<V> completed;
+        synchronized (this) {
+            failed++;
+            if (fanOut.getMode() == WebAsyncFanOut.Mode.PARTIAL) {
+                completed = succeeded + failed == results.length ? (List<V>) Arrays.asList(results.clone()) : null;
+            } else if (fanOut.getMode() == WebAsyncFanOut.Mode.FIRST && results.length - failed >= fanOut.getCount()) {
+                return;
+            } else {
+                completed = null;
+            }
+        }
+        if (fanOut.getMode() != WebAsyncFanOut.Mode.PARTIAL) {
+            result.completeExceptionally(e);
+        } else if (completed != null) {
+            result.complete(Collections.unmodifiableList(completed));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void completePartial() {
+        final List<V> completed;
+        synchronized (this) {
+            completed = (List<V>) Arrays.asList(results.clone());
+        }
+        result.complete(Collections.unmodifiableList(completed));
+    }
+
+}
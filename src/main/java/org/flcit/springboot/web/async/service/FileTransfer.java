@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * Writes a file region to the response, the part asked by a single {@code Range} header only,
+ * either handed over to the container sendfile when supported (Tomcat)
+ * or copied from the {@link FileChannel} to the response stream by chunks of a small heap buffer,
+ * the file never being read into the heap as a whole.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class FileTransfer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String BYTES = "bytes";
+
+    private FileTransfer() { }
+
+    /**
+     * Checks that the region lies within the file, before any asynchronous processing starts.
+     * @param file
+     * @param position first byte of the region
+     * @param count length of the region
+     * @throws IllegalArgumentException when the region is negative, overflows or exceeds the file size
+     */
+    static void checkRegion(Path file, long position, long count) {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("position and count must not be negative");
+        }
+        if (position > Long.MAX_VALUE - count) {
+            throw new IllegalArgumentException("position + count overflows");
+        }
+        final long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("cannot read the size of " + file, e);
+        }
+        if (position + count > size) {
+            throw new IllegalArgumentException("region exceeds the size of " + file);
+        }
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, Path file, long position, long count) throws IOException {
+        long start = 0;
+        long length = count;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        final String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null) {
+            try {
+                final List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(count);
+                    final long end = ranges.get(0).getRangeEnd(count);
+                    if (start > end) {
+                        throw new IllegalArgumentException("Range " + range + " not satisfiable");
+                    }
+                    length = end - start + 1;
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + ' ' + start + '-' + end + '/' + count);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + count);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+        if (response.getContentType() == null) {
+            response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        }
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && file.getFileSystem() == FileSystems.getDefault()) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, position + start);
+            request.setAttribute(SENDFILE_END, position + start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long offset = position + start;
+            long remaining = length;
+            while (remaining > 0) {
+                final long transferred = channel.transferTo(offset, remaining, target);
+                if (transferred <= 0) {
+                    throw new EOFException(file + " ends before " + offset);
+                }
+                offset += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import org.springframework.util.Assert;
+
+/**
+ * Aggregation of the results of a fan-out sent by {@link WebAsyncTaskService#sendAll}.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncFanOut {
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public enum Mode {
+        /**
+         * All the results, in the order of the callables, the first failure failing the task.
+         */
+        ALL,
+        /**
+         * The first results, in their order of completion.
+         */
+        FIRST,
+        /**
+         * The results completed within the wait, in the order of the callables, {@code null} for the others and the failed ones.
+         */
+        PARTIAL
+    }
+
+    private static final WebAsyncFanOut ALL = new WebAsyncFanOut(Mode.ALL, 0, 0);
+
+    private final Mode mode;
+    private final int count;
+    private final long wait;
+
+    private WebAsyncFanOut(Mode mode, int count, long wait) {
+        this.mode = mode;
+        this.count = count;
+        this.wait = wait;
+    }
+
+    /**
+     * @return
+     */
+    public static WebAsyncFanOut all() {
+        return ALL;
+    }
+
+    /**
+     * @param count number of results awaited
+     * @return
+     */
+    public static WebAsyncFanOut first(int count) {
+        Assert.isTrue(count > 0, "count must be positive");
+        return new WebAsyncFanOut(Mode.FIRST, count, 0);
+    }
+
+    /**
+     * @param wait milliseconds after which the task completes with the results available,
+     * lower than the timeout of the request
+     * @return
+     */
+    public static WebAsyncFanOut partial(long wait) {
+        Assert.isTrue(wait > 0, "wait must be positive");
+        return new WebAsyncFanOut(Mode.PARTIAL, 0, wait);
+    }
+
+    /**
+     * @return
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return
+     */
+    public long getWait() {
+        return wait;
+    }
+
+}
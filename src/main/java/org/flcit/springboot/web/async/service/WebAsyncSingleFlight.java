@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+
+/**
+ * Runs the concurrent calls sharing a key once on the executor,
+ * each caller waiting for the shared result without holding a thread.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+final class WebAsyncSingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>(16);
+
+    /**
+     * @param <V>
+     * @param key
+     * @param executor
+     * @param callable called on the executor by the first caller only
+     * @return the shared result of the key
+     */
+    @SuppressWarnings("unchecked")
+    <V> CompletableFuture<V> join(Object key, AsyncTaskExecutor executor, Callable<V> callable) {
+        final CompletableFuture<Object> created = new CompletableFuture<>();
+        final CompletableFuture<Object> current = inFlight.putIfAbsent(key, created);
+        if (current != null) {
+            return (CompletableFuture<V>) current;
+        }
+        try {
+            AsyncTaskExecutorUtils.submit(executor, () -> {
+                final Object result;
+                try {
+                    result = callable.call();
+                } catch (Throwable e) {
+                    fail(key, created, e);
+                    return;
+                }
+                inFlight.remove(key, created);
+                created.complete(result);
+            }, e -> fail(key, created, e));
+        } catch (RuntimeException e) {
+            fail(key, created, e);
+            throw e;
+        }
+        return (CompletableFuture<V>) created;
+    }
+
+    private void fail(Object key, CompletableFuture<Object> created, Throwable e) {
+        inFlight.remove(key, created);
+        created.completeExceptionally(e);
+    }
+
+}
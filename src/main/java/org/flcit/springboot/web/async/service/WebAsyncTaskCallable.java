@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.service;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import org.flcit.springboot.web.async.context.WebAsyncContextSnapshot;
+import org.flcit.springboot.web.async.deadline.WebAsyncDeadline;
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+
+/**
+ * {@link Callable} of the {@code WebAsyncTask} created by {@link WebAsyncTaskService},
+ * carrying the executor so that the task can be identified by the {@code CallableProcessingInterceptor},
+ * and failing with the rejection of the pool when its task is discarded instead of being run.
+ * 
+ * @param <V>
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncTaskCallable<V> implements Callable<V> {
+
+    private final String executorName;
+    private final AsyncTaskExecutor executor;
+    private final Callable<V> delegate;
+    private WebAsyncDeadline deadline;
+    private WebAsyncContextSnapshot context;
+    private volatile WebAsyncTaskRejectedException discarded;
+
+    /**
+     * For subclasses overriding {@link #call()}, calling {@link #checkDiscarded()} first.
+     * @param executorName
+     * @param executor
+     */
+    protected WebAsyncTaskCallable(String executorName, AsyncTaskExecutor executor) {
+        this(executorName, executor, null);
+    }
+
+    /**
+     * @param executorName
+     * @param executor
+     * @param delegate
+     */
+    public WebAsyncTaskCallable(String executorName, AsyncTaskExecutor executor, Callable<V> delegate) {
+        this.executorName = executorName;
+        this.executor = executor;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public V call() throws Exception {
+        checkDiscarded();
+        return delegate.call();
+    }
+
+    /**
+     * @throws WebAsyncTaskRejectedException the rejection of the pool when the task was discarded
+     */
+    protected final void checkDiscarded() {
+        final WebAsyncTaskRejectedException cause = discarded;
+        if (cause != null) {
+            throw cause;
+        }
+    }
+
+    /**
+     * @return
+     */
+    public String getExecutorName() {
+        return executorName != null ? executorName : AsyncTaskExecutorUtils.getExecutorName(executor);
+    }
+
+    /**
+     * @return the executor, {@code null} when the task is sent by executor name or to the Spring MVC executor
+     */
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the instant after which the response is no longer awaited, {@code null} without timeout
+     */
+    public WebAsyncDeadline getDeadline() {
+        return deadline;
+    }
+
+    void setDeadline(WebAsyncDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return the contexts captured when the task was sent, {@code null} when none
+     */
+    public WebAsyncContextSnapshot getContext() {
+        return context;
+    }
+
+    void setContext(WebAsyncContextSnapshot context) {
+        this.context = context;
+    }
+
+    /**
+     * @return the rejection of the pool which discarded the task, {@code null} when it was not discarded
+     */
+    public WebAsyncTaskRejectedException getDiscarded() {
+        return discarded;
+    }
+
+    void discard(WebAsyncTaskRejectedException cause) {
+        this.discarded = cause;
+    }
+
+    /**
+     * @return {@code true} when the task only returns a result computed elsewhere (coalesced, batched, hedged,
+     * fanned out or cached calls), run once that result is completed instead of waiting for a thread of its executor
+     */
+    public boolean isCompletion() {
+        return false;
+    }
+
+    /**
+     * @return the wrapped callable, {@code null} for subclasses overriding {@link #call()}
+     */
+    public Callable<V> getDelegate() {
+        return delegate;
+    }
+
+}
@@ -16,16 +16,48 @@
 
 package org.flcit.springboot.web.async.service;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.flcit.commons.core.functional.runnable.RunnableException;
 import org.flcit.commons.core.functional.callable.RunnableCallable;
 import org.flcit.commons.core.functional.callable.RunnableExceptionCallable;
+import org.flcit.springboot.web.async.batch.WebAsyncBatcher;
+import org.flcit.springboot.web.async.bulkhead.WebAsyncBulkhead;
 import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.context.WebAsyncContextPropagators;
+import org.flcit.springboot.web.async.context.WebAsyncContextSnapshot;
+import org.flcit.springboot.web.async.deadline.WebAsyncDeadline;
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.hedge.WebAsyncHedge;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+import org.flcit.springboot.web.async.util.WebAsyncTimeoutUtils;
 
 /**
  * 
@@ -35,6 +67,58 @@ import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
 @Service
 public class WebAsyncTaskService {
 
+    private static final String STREAMING_TIMEOUT = WebAsyncTaskService.class.getName() + ".STREAMING_TIMEOUT";
+
+    private final AsyncTaskExecutor defaultExecutor;
+    private final WebAsyncContextPropagators contextPropagators;
+    private final WebAsyncSingleFlight singleFlight = new WebAsyncSingleFlight();
+
+    /**
+     * 
+     */
+    public WebAsyncTaskService() {
+        this(null);
+    }
+
+    /**
+     * @param defaultExecutor executor used when none is given, {@code null} for the Spring MVC one
+     */
+    public WebAsyncTaskService(AsyncTaskExecutor defaultExecutor) {
+        this(defaultExecutor, WebAsyncContextPropagators.none());
+    }
+
+    /**
+     * @param defaultExecutor executor used when none is given, {@code null} for the Spring MVC one
+     * @param contextPropagators contexts captured when a task is sent and bound on the thread running it
+     */
+    public WebAsyncTaskService(AsyncTaskExecutor defaultExecutor, WebAsyncContextPropagators contextPropagators) {
+        this.defaultExecutor = defaultExecutor;
+        this.contextPropagators = contextPropagators;
+    }
+
+    /**
+     * @return
+     */
+    public AsyncTaskExecutor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * @return
+     */
+    public WebAsyncContextPropagators getContextPropagators() {
+        return contextPropagators;
+    }
+
+    /**
+     * @param timeout
+     * @param runnable
+     * @return
+     */
+    public WebAsyncTask<Void> sendThrows(Long timeout, RunnableException runnable) {
+        return send(timeout, new RunnableExceptionCallable(runnable));
+    }
+
     /**
      * @param timeout
      * @param executor
@@ -83,6 +167,16 @@ public class WebAsyncTaskService {
         return send(asyncTaskPool.getTimeout(), asyncTaskPool.getExecutorName(), callable);
     }
 
+    /**
+     * @param <V>
+     * @param timeout
+     * @param callable
+     * @return
+     */
+    public <V> WebAsyncTask<V> send(Long timeout, Callable<V> callable) {
+        return defaultExecutor != null ? send(timeout, defaultExecutor, callable) : new WebAsyncTask<>(timeout, wrap(null, null, timeout, callable));
+    }
+
     /**
      * @param <V>
      * @param timeout
@@ -91,7 +185,7 @@ public class WebAsyncTaskService {
      * @return
      */
     public <V> WebAsyncTask<V> send(Long timeout, String executorName, Callable<V> callable) {
-        return new WebAsyncTask<>(timeout, executorName, callable);
+        return new WebAsyncTask<>(timeout, executorName, wrap(executorName, null, timeout, callable));
     }
 
     /**
@@ -102,7 +196,380 @@ public class WebAsyncTaskService {
      * @return
      */
     public <V> WebAsyncTask<V> send(Long timeout, AsyncTaskExecutor executor, Callable<V> callable) {
-        return new WebAsyncTask<>(getTimeout(timeout, executor), executor, callable);
+        final Long taskTimeout = getTimeout(timeout, executor);
+        return createTask(taskTimeout, executor, wrap(null, executor, taskTimeout, callable));
+    }
+
+    /**
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param priority priority of the task when the executor is a {@link PriorityThreadPoolTaskExecutor}, ignored otherwise
+     * @param callable
+     * @return
+     */
+    public <V> WebAsyncTask<V> send(Long timeout, AsyncTaskExecutor executor, int priority, Callable<V> callable) {
+        final AsyncTaskExecutor taskExecutor = executor instanceof PriorityThreadPoolTaskExecutor
+                ? ((PriorityThreadPoolTaskExecutor) executor).withPriority(priority)
+                : executor;
+        final Long taskTimeout = getTimeout(timeout, executor);
+        return createTask(taskTimeout, taskExecutor, wrap(null, executor, taskTimeout, callable));
+    }
+
+    /**
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param bulkhead
+     * @param key
+     * @param callable
+     * @return
+     * @see #send(Long, AsyncTaskExecutor, int, WebAsyncBulkhead, Object, Callable)
+     */
+    public <V> WebAsyncTask<V> send(Long timeout, AsyncTaskExecutor executor, WebAsyncBulkhead bulkhead, Object key, Callable<V> callable) {
+        return send(timeout, executor, PriorityThreadPoolTaskExecutor.DEFAULT_PRIORITY, bulkhead, key, callable);
+    }
+
+    /**
+     * Takes a permit of the quota of the key before the submission, released when the callable ends
+     * or when the task is completed without having run (rejection, timeout), the {@code onCompletion}
+     * callback of the returned task being used to do so.
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param priority
+     * @param bulkhead
+     * @param key
+     * @param callable
+     * @return
+     * @throws org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException when the quota of the key is reached
+     */
+    public <V> WebAsyncTask<V> send(Long timeout, AsyncTaskExecutor executor, int priority, WebAsyncBulkhead bulkhead, Object key, Callable<V> callable) {
+        final WebAsyncBulkhead.Permit permit = bulkhead.acquire(key);
+        final WebAsyncTask<V> webAsyncTask = send(timeout, executor, priority, () -> {
+            try {
+                return callable.call();
+            } finally {
+                permit.release();
+            }
+        });
+        webAsyncTask.onCompletion(permit::release);
+        return webAsyncTask;
+    }
+
+    /**
+     * Calls the callable once on the executor for all the concurrent calls sharing the key,
+     * the returned {@link WebAsyncTask} being dispatched when the shared result is completed.
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param key
+     * @param callable
+     * @return
+     */
+    public <V> WebAsyncTask<V> sendCoalesced(Long timeout, AsyncTaskExecutor executor, Object key, Callable<V> callable) {
+        return send(timeout, executor, singleFlight.join(key, executor, contextPropagators.capture().wrap(callable)));
+    }
+
+    /**
+     * Adds the key to the pending batch of the batcher, the returned {@link WebAsyncTask} being dispatched
+     * with the value of the key once the batch is loaded on the executor of the batcher.
+     * The loader being shared by the calls of the batch, it runs without their thread-bound contexts.
+     * @param <K>
+     * @param <V>
+     * @param timeout
+     * @param batcher
+     * @param key
+     * @return
+     */
+    public <K, V> WebAsyncTask<V> sendBatched(Long timeout, WebAsyncBatcher<K, V> batcher, K key) {
+        return send(timeout, batcher.getExecutor(), batcher.submit(key));
+    }
+
+    /**
+     * Calls the idempotent callable on the executor of the hedge, a second copy being submitted when the first one
+     * has not completed after the delay of the hedge, the returned {@link WebAsyncTask} being dispatched with the first result.
+     * The copies still running are cancelled once the task is completed or timed out.
+     * @param <V>
+     * @param timeout
+     * @param hedge
+     * @param callable
+     * @return
+     */
+    public <V> WebAsyncTask<V> sendHedged(Long timeout, WebAsyncHedge hedge, Callable<V> callable) {
+        final CompletableFuture<V> result = hedge.submit(contextPropagators.capture().wrap(callable));
+        final WebAsyncTask<V> webAsyncTask = send(timeout, hedge.getExecutor(), result);
+        webAsyncTask.onCompletion(() -> result.cancel(false));
+        return webAsyncTask;
+    }
+
+    /**
+     * A {@link WebAsyncTask} of a result already known, dispatched without using the executor.
+     * @param <V>
+     * @param timeout
+     * @param executor executor identifying the task
+     * @param value
+     * @return
+     */
+    public <V> WebAsyncTask<V> sendCompleted(Long timeout, AsyncTaskExecutor executor, V value) {
+        return send(timeout, executor, CompletableFuture.completedFuture(value));
+    }
+
+    /**
+     * @param <V>
+     * @param asyncTaskPool pool implementing {@link AsyncTaskExecutor}
+     * @param fanOut
+     * @param callables
+     * @return
+     */
+    public <V> WebAsyncTask<List<V>> sendAll(WebAsyncTaskPool asyncTaskPool, WebAsyncFanOut fanOut, List<? extends Callable<? extends V>> callables) {
+        Assert.isInstanceOf(AsyncTaskExecutor.class, asyncTaskPool);
+        return sendAll(asyncTaskPool.getTimeout(), (AsyncTaskExecutor) asyncTaskPool, fanOut, callables);
+    }
+
+    /**
+     * Calls the callables in parallel on the executor, the returned {@link WebAsyncTask} being dispatched
+     * with their results aggregated by the {@link WebAsyncFanOut} without holding a thread meanwhile.
+     * The callables still running are cancelled once the task is completed or timed out.
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param fanOut
+     * @param callables
+     * @return
+     */
+    public <V> WebAsyncTask<List<V>> sendAll(Long timeout, AsyncTaskExecutor executor, WebAsyncFanOut fanOut, List<? extends Callable<? extends V>> callables) {
+        final FanOutTask<V> task = FanOutTask.submit(executor, fanOut, callables, contextPropagators.capture());
+        final WebAsyncTask<List<V>> webAsyncTask = send(timeout, executor, task.getResult());
+        webAsyncTask.onCompletion(task::cancel);
+        return webAsyncTask;
+    }
+
+    /**
+     * Calls the callable on the executor and completes with the {@link CompletionStage} it returns,
+     * or with an {@link AsyncRequestTimeoutException} once the timeout is reached.
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param callable
+     * @return
+     */
+    public <V> CompletableFuture<V> sendCompletable(Long timeout, AsyncTaskExecutor executor, Callable<? extends CompletionStage<? extends V>> callable) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final Future<?> task = AsyncTaskExecutorUtils.submit(executor, contextPropagators.capture().wrap(() -> {
+            try {
+                callable.call().whenComplete((value, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }), result::completeExceptionally);
+        final Long taskTimeout = getTimeout(timeout, executor);
+        if (taskTimeout != null && taskTimeout > 0) {
+            final ScheduledFuture<?> timer = WebAsyncTimeoutUtils.schedule(() -> {
+                if (result.completeExceptionally(new AsyncRequestTimeoutException())) {
+                    task.cancel(true);
+                }
+            }, taskTimeout);
+            result.whenComplete((value, ex) -> timer.cancel(false));
+        }
+        return result;
+    }
+
+    /**
+     * Calls the callable on the executor and completes with the result of the {@link DeferredResult} it returns.
+     * @param <V>
+     * @param timeout
+     * @param executor
+     * @param callable
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <V> DeferredResult<V> sendDeferred(Long timeout, AsyncTaskExecutor executor, Callable<? extends DeferredResult<? extends V>> callable) {
+        final DeferredResult<V> result = new DeferredResult<>(getTimeout(timeout, executor));
+        final Future<?> task = AsyncTaskExecutorUtils.submit(executor, contextPropagators.capture().wrap(() -> {
+            try {
+                callable.call().setResultHandler(value -> result.setResult((V) value));
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        }), result::setErrorResult);
+        result.onTimeout(() -> task.cancel(true));
+        result.onError(ex -> task.cancel(true));
+        return result;
+    }
+
+    /**
+     * @param executor
+     * @param body
+     * @return the body, to be returned by the handler
+     * @see #sendStreaming(Long, AsyncTaskExecutor, StreamingResponseBody)
+     */
+    public StreamingResponseBody sendStreaming(AsyncTaskExecutor executor, StreamingResponseBody body) {
+        return sendStreaming(null, executor, body);
+    }
+
+    /**
+     * Has the {@link StreamingResponseBody} returned by the handler of the current request written on the executor
+     * instead of the Spring MVC one, the container sending the chunks as the body writes them
+     * and blocking its writes while the client does not read.
+     * The timeout, otherwise the one of the pool, is set on the async request when its processing starts,
+     * the writing thread being interrupted once it is reached.
+     * @param timeout
+     * @param executor
+     * @param body
+     * @return the body, to be returned by the handler
+     */
+    public StreamingResponseBody sendStreaming(Long timeout, AsyncTaskExecutor executor, StreamingResponseBody body) {
+        final WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(
+                ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest());
+        asyncManager.setTaskExecutor(executor);
+        final Long taskTimeout = getTimeout(timeout, executor);
+        if (taskTimeout != null) {
+            asyncManager.registerCallableInterceptor(STREAMING_TIMEOUT, new CallableProcessingInterceptor() {
+                @Override
+                public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                    if (request instanceof AsyncWebRequest) {
+                        ((AsyncWebRequest) request).setTimeout(taskTimeout);
+                    }
+                }
+            });
+        }
+        final WebAsyncContextSnapshot context = contextPropagators.capture();
+        if (context.isEmpty()) {
+            return body;
+        }
+        return outputStream -> {
+            final WebAsyncContextSnapshot previous = context.attach();
+            try {
+                body.writeTo(outputStream);
+            } finally {
+                previous.restore();
+            }
+        };
+    }
+
+    /**
+     * @param <T>
+     * @param executor
+     * @param emitter
+     * @param producer
+     * @return the emitter, to be returned by the handler
+     * @see #sendEmitter(AsyncTaskExecutor, ResponseBodyEmitter, RunnableException, Runnable, Consumer)
+     */
+    public <T extends ResponseBodyEmitter> T sendEmitter(AsyncTaskExecutor executor, T emitter, RunnableException producer) {
+        return sendEmitter(executor, emitter, producer, null, null);
+    }
+
+    /**
+     * Runs the producer on the executor, the emitter being completed when it returns
+     * or completed with the error it throws. The sends of the producer are written and flushed one by one,
+     * blocking while the client does not read, and the producer is interrupted when the emitter
+     * times out or fails. The {@code onTimeout} and {@code onError} callbacks of the emitter, holding a single callback each,
+     * are used to do so: the callbacks of the caller are given here, to be called after the interruption,
+     * instead of being registered on the emitter.
+     * @param <T>
+     * @param executor
+     * @param emitter
+     * @param producer
+     * @param onTimeout called when the emitter times out, {@code null} for none
+     * @param onError called when the emitter fails, {@code null} for none
+     * @return the emitter, to be returned by the handler
+     */
+    public <T extends ResponseBodyEmitter> T sendEmitter(AsyncTaskExecutor executor, T emitter, RunnableException producer,
+            Runnable onTimeout, Consumer<Throwable> onError) {
+        final Future<?> task = AsyncTaskExecutorUtils.submit(executor, contextPropagators.capture().wrap(() -> {
+            try {
+                producer.run();
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        }), emitter::completeWithError);
+        emitter.onTimeout(() -> {
+            task.cancel(true);
+            if (onTimeout != null) {
+                onTimeout.run();
+            }
+        });
+        emitter.onError(ex -> {
+            task.cancel(true);
+            if (onError != null) {
+                onError.accept(ex);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * @param asyncTaskPool
+     * @param request
+     * @param response
+     * @param file
+     * @return
+     * @see #sendFile(Long, AsyncTaskExecutor, HttpServletRequest, HttpServletResponse, Path, long, long)
+     */
+    public WebAsyncTask<Void> sendFile(WebAsyncTaskPool asyncTaskPool, HttpServletRequest request, HttpServletResponse response, Path file) {
+        return sendThrows(asyncTaskPool, () -> FileTransfer.write(request, response, file, 0, Files.size(file)));
+    }
+
+    /**
+     * @param timeout
+     * @param executor
+     * @param request
+     * @param response
+     * @param file
+     * @return
+     * @see #sendFile(Long, AsyncTaskExecutor, HttpServletRequest, HttpServletResponse, Path, long, long)
+     */
+    public WebAsyncTask<Void> sendFile(Long timeout, AsyncTaskExecutor executor, HttpServletRequest request, HttpServletResponse response, Path file) {
+        return sendThrows(timeout, executor, () -> FileTransfer.write(request, response, file, 0, Files.size(file)));
+    }
+
+    /**
+     * Writes the file region to the response from the executor, honouring a single-range {@code Range} header.
+     * The region is handed over to the container sendfile when it supports it (Tomcat), the thread being released
+     * before the transfer, otherwise it is copied from the {@code FileChannel} to the response stream
+     * by chunks of a small heap buffer, without reading the whole file into the heap.
+     * @param timeout
+     * @param executor
+     * @param request
+     * @param response
+     * @param file
+     * @param position first byte of the region
+     * @param count length of the region
+     * @return
+     * @throws IllegalArgumentException when the region is negative, overflows or exceeds the file size
+     */
+    public WebAsyncTask<Void> sendFile(Long timeout, AsyncTaskExecutor executor, HttpServletRequest request, HttpServletResponse response,
+            Path file, long position, long count) {
+        FileTransfer.checkRegion(file, position, count);
+        return sendThrows(timeout, executor, () -> FileTransfer.write(request, response, file, position, count));
+    }
+
+    private static final <V> WebAsyncTask<V> send(Long timeout, AsyncTaskExecutor executor, CompletableFuture<V> result) {
+        return new WebAsyncTask<>(getTimeout(timeout, executor), new CompletionTaskExecutor(result), new CompletionCallable<>(executor, result));
+    }
+
+    private static final <V> WebAsyncTask<V> createTask(Long timeout, AsyncTaskExecutor executor, WebAsyncTaskCallable<V> callable) {
+        return new WebAsyncTask<>(timeout, new DiscardableTaskExecutor(executor, callable), callable);
+    }
+
+    private <V> WebAsyncTaskCallable<V> wrap(String executorName, AsyncTaskExecutor executor, Long timeout, Callable<V> callable) {
+        final WebAsyncTaskCallable<V> task = callable instanceof WebAsyncTaskCallable ? (WebAsyncTaskCallable<V>) callable : new WebAsyncTaskCallable<>(executorName, executor, callable);
+        if (timeout != null && timeout > 0) {
+            task.setDeadline(WebAsyncDeadline.after(timeout));
+        }
+        final WebAsyncContextSnapshot context = contextPropagators.capture();
+        if (!context.isEmpty()) {
+            task.setContext(context);
+        }
+        return task;
     }
 
     private static final Long getTimeout(Long timeout, AsyncTaskExecutor executor) {
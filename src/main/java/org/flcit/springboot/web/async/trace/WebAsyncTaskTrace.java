@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.trace;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timestamps of the phases of a task sent by {@code WebAsyncTaskService}, from the start of the async processing
+ * to the commit of the response, telling the time spent in the queue of the executor, in the task
+ * and in the re-dispatch by the Servlet container.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncTaskTrace {
+
+    /**
+     * 
+     * @since 
+     * @author Florian Lestic
+     */
+    public enum Phase {
+        /**
+         * Async processing started by the Servlet container, the task being submitted to the executor right after.
+         */
+        START_ASYNC,
+        /**
+         * Task taken by a thread of the executor.
+         */
+        START,
+        /**
+         * Task completed, its result being dispatched to the container.
+         */
+        END,
+        /**
+         * Async dispatch received back from the container.
+         */
+        DISPATCH,
+        /**
+         * Response committed, once the async request is completed.
+         */
+        COMMIT
+    }
+
+    private final String executorName;
+    private final Method handler;
+    private final long startTime = System.currentTimeMillis();
+    private final AtomicLongArray times = new AtomicLongArray(Phase.values().length);
+
+    WebAsyncTaskTrace(String executorName, Method handler) {
+        this.executorName = executorName;
+        this.handler = handler;
+        mark(Phase.START_ASYNC);
+    }
+
+    void mark(Phase phase) {
+        times.compareAndSet(phase.ordinal(), 0, System.nanoTime());
+    }
+
+    /**
+     * @return
+     */
+    public String getExecutorName() {
+        return executorName;
+    }
+
+    /**
+     * @return the handler method, {@code null} when unknown
+     */
+    public Method getHandler() {
+        return handler;
+    }
+
+    /**
+     * @return milliseconds since the epoch of the {@link Phase#START_ASYNC} phase
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @param phase
+     * @return the {@link System#nanoTime()} of the phase, {@code 0} when not reached (timeout, rejection...)
+     */
+    public long getTime(Phase phase) {
+        return times.get(phase.ordinal());
+    }
+
+    /**
+     * @param from
+     * @param to
+     * @return nanoseconds between the phases, {@code -1} when one of them is not reached
+     */
+    public long getDuration(Phase from, Phase to) {
+        final long start = getTime(from);
+        final long end = getTime(to);
+        return start != 0 && end != 0 ? end - start : -1;
+    }
+
+    /**
+     * @return the durations of the queue, of the execution and of the re-dispatch in the
+     * {@code Server-Timing} header format, the missing ones being omitted
+     */
+    public String toServerTiming() {
+        final StringBuilder builder = new StringBuilder(64);
+        appendServerTiming(builder, "queue", getDuration(Phase.START_ASYNC, Phase.START));
+        appendServerTiming(builder, "execution", getDuration(Phase.START, Phase.END));
+        appendServerTiming(builder, "dispatch", getDuration(Phase.END, Phase.DISPATCH));
+        return builder.toString();
+    }
+
+    private static void appendServerTiming(StringBuilder builder, String name, long duration) {
+        if (duration < 0) {
+            return;
+        }
+        if (builder.length() > 0) {
+            builder.append(", ");
+        }
+        builder.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", duration / 1_000_000d));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(128)
+                .append("WebAsyncTaskTrace[executor=").append(executorName);
+        if (handler != null) {
+            builder.append(", handler=").append(handler.getDeclaringClass().getSimpleName()).append('#').append(handler.getName());
+        }
+        appendDuration(builder, "queue", getDuration(Phase.START_ASYNC, Phase.START));
+        appendDuration(builder, "execution", getDuration(Phase.START, Phase.END));
+        appendDuration(builder, "dispatch", getDuration(Phase.END, Phase.DISPATCH));
+        appendDuration(builder, "commit", getDuration(Phase.DISPATCH, Phase.COMMIT));
+        return builder.append(']').toString();
+    }
+
+    private static void appendDuration(StringBuilder builder, String name, long duration) {
+        if (duration >= 0) {
+            builder.append(", ").append(name).append('=').append(duration / 1000).append("us");
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.trace;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import org.flcit.springboot.web.async.interceptor.WebAsyncTaskInterceptor;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+/**
+ * Records the {@link WebAsyncTaskTrace} of the tasks sent by {@code WebAsyncTaskService} in a request attribute,
+ * published as an event once the response is committed and, optionally,
+ * written in the {@code Server-Timing} header of the response when the async dispatch comes back.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public class WebAsyncTaskTraceInterceptor implements WebAsyncTaskInterceptor, AsyncHandlerInterceptor {
+
+    public static final String TRACE_ATTRIBUTE = WebAsyncTaskTrace.class.getName();
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Log LOG = LogFactory.getLog(WebAsyncTaskTraceInterceptor.class);
+
+    private final ApplicationEventPublisher publisher;
+    private final boolean headers;
+
+    /**
+     * @param publisher publisher of the traces, {@code null} for none
+     * @param headers {@code true} to write the {@code Server-Timing} header
+     */
+    public WebAsyncTaskTraceInterceptor(ApplicationEventPublisher publisher, boolean headers) {
+        this.publisher = publisher;
+        this.headers = headers;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (task instanceof WebAsyncTaskCallable) {
+            request.setAttribute(TRACE_ATTRIBUTE,
+                    new WebAsyncTaskTrace(((WebAsyncTaskCallable<?>) task).getExecutorName(), getHandler(request)),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        mark(request, WebAsyncTaskTrace.Phase.START);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        mark(request, WebAsyncTaskTrace.Phase.END);
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        final WebAsyncTaskTrace trace = mark(request, WebAsyncTaskTrace.Phase.COMMIT);
+        if (trace == null) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(trace);
+        }
+        if (publisher != null) {
+            publisher.publishEvent(trace);
+        }
+    }
+
+    /**
+     * Marks the {@link WebAsyncTaskTrace.Phase#DISPATCH} phase on the async dispatch of a traced request.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            return true;
+        }
+        final Object trace = request.getAttribute(TRACE_ATTRIBUTE);
+        if (trace instanceof WebAsyncTaskTrace) {
+            ((WebAsyncTaskTrace) trace).mark(WebAsyncTaskTrace.Phase.DISPATCH);
+            if (headers && !response.isCommitted()) {
+                response.addHeader(SERVER_TIMING_HEADER, ((WebAsyncTaskTrace) trace).toServerTiming());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param request
+     * @return the trace of the task of the request, {@code null} when not sent by {@code WebAsyncTaskService} or not traced
+     */
+    public static WebAsyncTaskTrace getTrace(NativeWebRequest request) {
+        return (WebAsyncTaskTrace) request.getAttribute(TRACE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static WebAsyncTaskTrace mark(NativeWebRequest request, WebAsyncTaskTrace.Phase phase) {
+        final WebAsyncTaskTrace trace = getTrace(request);
+        if (trace != null) {
+            trace.mark(phase);
+        }
+        return trace;
+    }
+
+    private static Method getHandler(NativeWebRequest request) {
+        final Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethod() : null;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.util;
+
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CustomizableThreadCreator;
+
+import org.flcit.springboot.web.async.annotation.WebAsyncThreads;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.executor.DiscardableFutureTask;
+import org.flcit.springboot.web.async.executor.VirtualThreadTaskExecutor;
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+
+/**
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class AsyncTaskExecutorUtils {
+
+    private static final Log LOG = LogFactory.getLog(AsyncTaskExecutorUtils.class);
+
+    private static volatile AsyncTaskExecutor virtualThreadTaskExecutor;
+
+    public static final String DEFAULT_EXECUTOR_NAME = "default";
+
+    private AsyncTaskExecutorUtils() { }
+
+    /**
+     * @param executor
+     * @return the {@link WebAsyncTaskPool} name, the thread name prefix or the class name of the executor
+     */
+    public static final String getExecutorName(AsyncTaskExecutor executor) {
+        if (executor == null) {
+            return DEFAULT_EXECUTOR_NAME;
+        }
+        if (executor instanceof WebAsyncTaskPool) {
+            return ((WebAsyncTaskPool) executor).getExecutorName();
+        }
+        if (executor instanceof CustomizableThreadCreator) {
+            final String prefix = ((CustomizableThreadCreator) executor).getThreadNamePrefix();
+            if (prefix != null && prefix.length() > 1) {
+                return prefix.endsWith("-") ? prefix.substring(0, prefix.length() - 1) : prefix;
+            }
+        }
+        return ClassUtils.getShortName(ClassUtils.getUserClass(executor));
+    }
+
+    /**
+     * Executes the task as a {@link DiscardableFutureTask}, the callback being called instead of the task
+     * when a saturated pool discards it, or when its rejection policy runs it on a thread of {@link WebAsyncTimeoutUtils}.
+     * @param executor
+     * @param task
+     * @param onDiscard
+     * @return the future of the task
+     */
+    public static final Future<?> submit(AsyncTaskExecutor executor, Runnable task, Consumer<WebAsyncTaskRejectedException> onDiscard) {
+        final DiscardableFutureTask<Object> future = new DiscardableFutureTask<Object>(task, null, onDiscard) {
+            @Override
+            public void run() {
+                if (WebAsyncTimeoutUtils.isTimerThread()) {
+                    discard(new WebAsyncTaskRejectedException("Task of executor " + getExecutorName(executor) + " not run by the timer thread"));
+                } else {
+                    super.run();
+                }
+            }
+        };
+        executor.execute(future);
+        return future;
+    }
+
+    /**
+     * @param threads
+     * @return the shared {@link VirtualThreadTaskExecutor} when virtual threads are selected and supported, otherwise {@code null}
+     */
+    public static final AsyncTaskExecutor getDefaultExecutor(WebAsyncThreads threads) {
+        if (threads == null || threads == WebAsyncThreads.PLATFORM) {
+            return null;
+        }
+        if (!VirtualThreadTaskExecutor.isSupported()) {
+            if (threads == WebAsyncThreads.VIRTUAL && LOG.isWarnEnabled()) {
+                LOG.warn("Virtual threads are not supported by this JVM, platform threads are used");
+            }
+            return null;
+        }
+        return getVirtualThreadTaskExecutor();
+    }
+
+    private static AsyncTaskExecutor getVirtualThreadTaskExecutor() {
+        AsyncTaskExecutor executor = virtualThreadTaskExecutor;
+        if (executor == null) {
+            synchronized (AsyncTaskExecutorUtils.class) {
+                executor = virtualThreadTaskExecutor;
+                if (executor == null) {
+                    executor = new VirtualThreadTaskExecutor();
+                    virtualThreadTaskExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+}
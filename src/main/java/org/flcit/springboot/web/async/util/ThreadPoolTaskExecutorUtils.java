@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.util;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+
+/**
+ * Live state and sizes of the {@link ThreadPoolTaskExecutor} pools.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class ThreadPoolTaskExecutorUtils {
+
+    private ThreadPoolTaskExecutorUtils() { }
+
+    /**
+     * @param pool
+     * @param queueCapacity
+     * @return
+     */
+    public static final WebAsyncTaskPoolStats getStats(ThreadPoolTaskExecutor pool, int queueCapacity) {
+        final ThreadPoolExecutor executor = pool.getThreadPoolExecutor();
+        return new WebAsyncTaskPoolStats(executor.getCorePoolSize(), executor.getMaximumPoolSize(), queueCapacity,
+                executor.getPoolSize(), executor.getActiveCount(), executor.getQueue().size(), executor.getCompletedTaskCount());
+    }
+
+    /**
+     * Changes the core and max sizes, the {@code null} values being left unchanged.
+     * @param pool
+     * @param executorName
+     * @param coreSize
+     * @param maxSize
+     * @throws IllegalArgumentException when the sizes are invalid
+     */
+    public static final void resize(ThreadPoolTaskExecutor pool, String executorName, Integer coreSize, Integer maxSize) {
+        final int core = coreSize != null ? coreSize : pool.getCorePoolSize();
+        final int max = maxSize != null ? maxSize : pool.getMaxPoolSize();
+        Assert.isTrue(core >= 0 && max > 0 && core <= max, () -> "Invalid sizes core " + core + " max " + max + " for pool " + executorName);
+        // the core size never exceeds the max size in between
+        if (max >= pool.getMaxPoolSize()) {
+            pool.setMaxPoolSize(max);
+            pool.setCorePoolSize(core);
+        } else {
+            pool.setCorePoolSize(core);
+            pool.setMaxPoolSize(max);
+        }
+    }
+
+}
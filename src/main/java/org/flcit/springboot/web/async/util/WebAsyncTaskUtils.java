@@ -29,6 +29,8 @@ import org.springframework.web.context.request.async.WebAsyncTask;
  */
 public final class WebAsyncTaskUtils {
 
+    private static final WebAsyncTaskResponse<Object> NULL_RESPONSE = new WebAsyncTaskResponse<>(null);
+
     private WebAsyncTaskUtils() { }
 
     /**
@@ -36,15 +38,17 @@ public final class WebAsyncTaskUtils {
      * @param result
      * @return
      */
+    @SuppressWarnings("unchecked")
     public static final <T> WebAsyncTask<T> send(T result) {
-        return new WebAsyncTaskResponse<>(result);
+        return result == null ? (WebAsyncTask<T>) NULL_RESPONSE : new WebAsyncTaskResponse<>(result);
     }
 
     /**
-     * @return
+     * @return a shared instance
      */
+    @SuppressWarnings("unchecked")
     public static final WebAsyncTask<Void> send() {
-        return send(null);
+        return (WebAsyncTask<Void>) (WebAsyncTask<?>) NULL_RESPONSE;
     }
 
     private static final class WebAsyncTaskResponse<T extends Object> extends WebAsyncTask<T> implements org.flcit.springboot.web.async.annotation.aspect.WebAsyncTaskResponse<T> {
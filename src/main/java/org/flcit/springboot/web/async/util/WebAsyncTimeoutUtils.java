@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.util;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Shared daemon timer for the timeouts that are not handled by the Servlet container.
+ * The timer never submits a task to a pool itself: it hands the submission off to a daemon thread,
+ * so that a rejection policy running the task on the caller or blocking it never holds the timer.
+ * 
+ * @since 
+ * @author Florian Lestic
+ */
+public final class WebAsyncTimeoutUtils {
+
+    private WebAsyncTimeoutUtils() { }
+
+    /**
+     * @param task
+     * @param timeout milliseconds
+     * @return
+     */
+    public static final ScheduledFuture<?> schedule(Runnable task, long timeout) {
+        return Holder.SCHEDULER.schedule(task, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a submission decided by the timer on a hand-off thread, which does not run the submitted task either:
+     * a task submitted with {@link AsyncTaskExecutorUtils#submit} and run on it by the rejection policy of the pool
+     * is discarded instead.
+     * @param submission
+     */
+    public static final void handOff(Runnable submission) {
+        Holder.HAND_OFF.execute(submission);
+    }
+
+    /**
+     * @return {@code true} on the timer thread or a hand-off thread, which must neither run a pool task nor wait for a pool
+     */
+    public static final boolean isTimerThread() {
+        return Thread.currentThread() instanceof TimerThread;
+    }
+
+    private static final class Holder {
+
+        private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+        private static final ThreadPoolExecutor HAND_OFF = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new TimerThreadFactory("web-async-handoff-"));
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new TimerThreadFactory("web-async-timeout-"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+
+    }
+
+    private static final class TimerThreadFactory extends CustomizableThreadFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        private TimerThreadFactory(String threadNamePrefix) {
+            super(threadNamePrefix);
+            setDaemon(true);
+        }
+
+        @Override
+        public Thread createThread(Runnable runnable) {
+            final Thread thread = new TimerThread(getThreadGroup(), runnable, nextThreadName());
+            thread.setPriority(getThreadPriority());
+            thread.setDaemon(isDaemon());
+            return thread;
+        }
+
+    }
+
+    private static final class TimerThread extends Thread {
+
+        private TimerThread(ThreadGroup group, Runnable runnable, String name) {
+            super(group, runnable, name);
+        }
+
+    }
+
+}
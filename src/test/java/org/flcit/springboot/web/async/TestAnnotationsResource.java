@@ -17,6 +17,7 @@
 package org.flcit.springboot.web.async;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -25,13 +26,17 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.flcit.commons.core.util.ThreadUtils;
 import org.flcit.springboot.web.async.annotation.WebAsync;
 import org.flcit.springboot.web.async.executor.PublicThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.service.WebAsyncTaskService;
 import org.flcit.springboot.web.async.util.WebAsyncTaskUtils;
 
 @RestController
@@ -49,9 +54,22 @@ class TestAnnotationsResource {
     static final String GET_POOL_TIMEOUT_RESPONSE_PATH = "/async/pool/timeout/response";
     static final String GET_POOL_TIMEOUT_RESPONSE_STREAM_PATH = "/async/pool/timeout/response/stream";
 
+    static final String GET_POOL_PROPERTIES_RESPONSE_PATH = "/async/pool/properties/response";
+
+    static final String GET_POOL_COMPLETABLE_RESPONSE_PATH = "/async/pool/completable/response";
+    static final String GET_POOL_DEFERRED_RESPONSE_PATH = "/async/pool/deferred/response";
+    static final String GET_POOL_STREAMING_RESPONSE_PATH = "/async/pool/streaming/response";
+    static final String GET_POOL_EMITTER_RESPONSE_PATH = "/async/pool/emitter/response";
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private WebAsyncTaskService webAsyncTaskService;
+
+    @Autowired
+    private PublicThreadPoolTaskExecutor executor;
+
     @GetMapping(GET_POOL_NAME_RESPONSE_PATH)
     @WebAsync(PublicThreadPoolTaskExecutor.BEAN_NAME)
     public WebAsyncTask<Response> asyncPoolNameResponse() {
@@ -80,6 +98,40 @@ class TestAnnotationsResource {
         return WebAsyncTaskUtils.send();
     }
 
+    @GetMapping(GET_POOL_PROPERTIES_RESPONSE_PATH)
+    @WebAsync("reports")
+    public WebAsyncTask<Response> asyncPoolPropertiesResponse() {
+        return WebAsyncTaskUtils.send(RESPONSE);
+    }
+
+    @GetMapping(GET_POOL_COMPLETABLE_RESPONSE_PATH)
+    @WebAsync(PublicThreadPoolTaskExecutor.BEAN_NAME)
+    public CompletableFuture<Response> asyncPoolCompletableResponse() {
+        return CompletableFuture.completedFuture(RESPONSE);
+    }
+
+    @GetMapping(GET_POOL_DEFERRED_RESPONSE_PATH)
+    @WebAsync(PublicThreadPoolTaskExecutor.BEAN_NAME)
+    public DeferredResult<Response> asyncPoolDeferredResponse() {
+        final DeferredResult<Response> result = new DeferredResult<>();
+        result.setResult(RESPONSE);
+        return result;
+    }
+
+    @GetMapping(GET_POOL_STREAMING_RESPONSE_PATH)
+    @WebAsync(PublicThreadPoolTaskExecutor.BEAN_NAME)
+    public StreamingResponseBody asyncPoolStreamingResponse(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        return outputStream -> outputStream.write(objectMapper.writeValueAsBytes(RESPONSE));
+    }
+
+    @GetMapping(GET_POOL_EMITTER_RESPONSE_PATH)
+    public ResponseBodyEmitter asyncPoolEmitterResponse(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        final ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        return webAsyncTaskService.sendEmitter(executor, emitter, () -> emitter.send(RESPONSE, MediaType.APPLICATION_JSON));
+    }
+
     @GetMapping(GET_POOL_TIMEOUT_RESPONSE_PATH)
     @WebAsync(value = PublicThreadPoolTaskExecutor.BEAN_NAME, timeout = 1000)
     public WebAsyncTask<Response> asyncPoolTimeoutResponse() throws InterruptedException {
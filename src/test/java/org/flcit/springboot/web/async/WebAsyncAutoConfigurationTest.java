@@ -25,10 +25,30 @@ import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
 import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.flcit.springboot.commons.test.util.MvcUtils;
 import org.flcit.springboot.web.async.annotation.aspect.AspectWebAsync;
+import org.flcit.springboot.web.async.autoscale.WebAsyncAutoscalingController;
+import org.flcit.springboot.web.async.cancellation.WebAsyncCancellationInterceptor;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncWebMvcConfigurer;
+import org.flcit.springboot.web.async.context.WebAsyncContextInterceptor;
+import org.flcit.springboot.web.async.context.WebAsyncContextPropagators;
+import org.flcit.springboot.web.async.deadline.WebAsyncDeadlineInterceptor;
+import org.flcit.springboot.web.async.endpoint.WebAsyncPoolsEndpoint;
+import org.flcit.springboot.web.async.executor.ConcurrencyLimitTaskExecutor;
+import org.flcit.springboot.web.async.executor.ForkJoinPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
 import org.flcit.springboot.web.async.executor.PublicThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.WebAsyncThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.metrics.WebAsyncTaskMetricsInterceptor;
+import org.flcit.springboot.web.async.metrics.WebAsyncTaskPoolMetrics;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectedExecutionHandler;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy;
 import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+import org.flcit.springboot.web.async.trace.WebAsyncTaskTraceInterceptor;
 
 class WebAsyncAutoConfigurationTest {
 
@@ -46,6 +66,22 @@ class WebAsyncAutoConfigurationTest {
         .run(context -> {
             assertThat(context).doesNotHaveBean(AspectWebAsync.class);
             assertThat(context).hasSingleBean(WebAsyncTaskService.class);
+            assertThat(context).hasSingleBean(WebAsyncWebMvcConfigurer.class);
+            assertThat(context).hasSingleBean(WebAsyncDeadlineInterceptor.class);
+            assertThat(context).hasSingleBean(WebAsyncContextInterceptor.class);
+            assertThat(context).hasSingleBean(WebAsyncPoolsEndpoint.class);
+            assertThat(context.getBean(WebAsyncContextPropagators.class).size()).isEqualTo(3);
+            assertThat(context.getBean(WebAsyncTaskService.class).getContextPropagators()).isSameAs(context.getBean(WebAsyncContextPropagators.class));
+            assertThat(context).doesNotHaveBean(WebAsyncCancellationInterceptor.class);
+            assertThat(context).doesNotHaveBean(WebAsyncTaskMetricsInterceptor.class);
+            assertThat(context).doesNotHaveBean(WebAsyncTaskTraceInterceptor.class);
+            assertThat(context).doesNotHaveBean(WebAsyncAutoscalingController.class);
+        });
+        this.contextRunner
+        .withPropertyValues("async.web.context-propagation=false")
+        .run(context -> {
+            assertThat(context).doesNotHaveBean(WebAsyncContextInterceptor.class);
+            assertThat(context.getBean(WebAsyncTaskService.class).getContextPropagators().size()).isZero();
         });
         this.contextRunner
         .withPropertyValues("async.web.annotation=true")
@@ -53,12 +89,91 @@ class WebAsyncAutoConfigurationTest {
             assertThat(context).hasSingleBean(AspectWebAsync.class);
             assertThat(context).hasSingleBean(WebAsyncTaskService.class);
         });
+        this.contextRunner
+        .withPropertyValues("async.web.cancellation=true")
+        .run(context -> {
+            assertThat(context).hasSingleBean(WebAsyncCancellationInterceptor.class);
+        });
+        this.contextRunner
+        .withPropertyValues("async.web.tracing.enabled=true", "async.web.tracing.headers=true")
+        .run(context -> {
+            assertThat(context).hasSingleBean(WebAsyncTaskTraceInterceptor.class);
+        });
+        this.contextRunner
+        .withPropertyValues("async.web.pools.stealing.fork-join=true", "async.web.pools.stealing.autoscale.enabled=true")
+        .run(context -> {
+            assertThat(context).doesNotHaveBean(WebAsyncAutoscalingController.class);
+        });
+        this.contextRunner
+        .withPropertyValues("async.web.threads=platform")
+        .run(context -> {
+            assertThat(context.getBean(WebAsyncTaskService.class).getDefaultExecutor()).isNull();
+        });
+    }
+
+    @Test
+    void pools() {
+        this.contextRunner
+        .withPropertyValues(
+                "async.web.pools.reports.core-size=2",
+                "async.web.pools.reports.max-size=4",
+                "async.web.pools.reports.queue-capacity=10",
+                "async.web.pools.reports.keep-alive=30s",
+                "async.web.pools.reports.timeout=5s",
+                "async.web.pools.reports.autoscale.enabled=true",
+                "async.web.pools.reports.autoscale.max-size=16",
+                "async.web.pools.exports.core-size=1",
+                "async.web.pools.exports.rejection.policy=discard-oldest",
+                "async.web.pools.exports.rejection.retry-after=10s",
+                "async.web.pools.limited.limit.enabled=true",
+                "async.web.pools.limited.limit.max=50",
+                "async.web.pools.prioritized.priority.enabled=true",
+                "async.web.pools.prioritized.priority.aging=500ms",
+                "async.web.pools.stealing.fork-join=true",
+                "async.web.pools.stealing.core-size=4")
+        .run(context -> {
+            assertThat(context).getBeans(WebAsyncTaskPool.class).containsOnlyKeys("reports", "exports", "limited", "prioritized", "stealing");
+            assertThat(((ForkJoinPoolTaskExecutor) context.getBean("stealing")).getForkJoinPool().getParallelism()).isEqualTo(4);
+            assertThat(context.getBean("prioritized")).isInstanceOf(PriorityThreadPoolTaskExecutor.class);
+            assertThat(context.getBean("limited")).isInstanceOf(ConcurrencyLimitTaskExecutor.class);
+            assertThat(((ConcurrencyLimitTaskExecutor) context.getBean("limited")).getDelegate()).isInstanceOf(WebAsyncThreadPoolTaskExecutor.class);
+            final WebAsyncThreadPoolTaskExecutor executor = context.getBean("reports", WebAsyncThreadPoolTaskExecutor.class);
+            assertThat(executor.getExecutorName()).isEqualTo("reports");
+            assertThat(executor.getCorePoolSize()).isEqualTo(2);
+            assertThat(executor.getMaxPoolSize()).isEqualTo(4);
+            assertThat(executor.getQueueCapacity()).isEqualTo(10);
+            assertThat(executor.getKeepAliveSeconds()).isEqualTo(30);
+            assertThat(executor.getTimeout()).isEqualTo(5000L);
+            assertThat(context.getBean("exports", WebAsyncThreadPoolTaskExecutor.class).getTimeout()).isNull();
+            assertThat(context.getBean(WebAsyncAutoscalingController.class).getAutoscaler("reports")).isNotNull();
+            assertThat(context.getBean(WebAsyncAutoscalingController.class).getAutoscaler("exports")).isNull();
+            assertThat(executor.getThreadPoolExecutor().getRejectedExecutionHandler()).isNotInstanceOf(WebAsyncRejectedExecutionHandler.class);
+            assertThat(((WebAsyncRejectedExecutionHandler) context.getBean("exports", WebAsyncThreadPoolTaskExecutor.class)
+                    .getThreadPoolExecutor().getRejectedExecutionHandler()).getPolicy()).isEqualTo(WebAsyncRejectionPolicy.DISCARD_OLDEST);
+        });
+    }
+
+    @Test
+    void metrics() {
+        this.contextRunner
+        .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+        .withPropertyValues("async.web.pools.reports.core-size=2", "async.web.pools.reports.rejection.policy=reject")
+        .run(context -> {
+            assertThat(context).hasSingleBean(WebAsyncTaskMetricsInterceptor.class);
+            assertThat(context).hasSingleBean(WebAsyncTaskPoolMetrics.class);
+            final MeterRegistry registry = context.getBean(MeterRegistry.class);
+            context.getBean(WebAsyncTaskPoolMetrics.class).bindTo(registry);
+            assertThat(registry.get("web.async.pool.active").tag("executor", "reports").gauge().value()).isZero();
+            assertThat(registry.get("web.async.pool.rejected").tag("executor", "reports").functionCounter().count()).isZero();
+            assertThat(registry.get("web.async.pool.rejection").tags("executor", "reports", "policy", "reject", "outcome", "rejected")
+                    .functionCounter().count()).isZero();
+        });
     }
 
     @Test
     void annotation() {
         this.contextRunner
-        .withPropertyValues("async.web.annotation=true")
+        .withPropertyValues("async.web.annotation=true", "async.web.pools.reports.core-size=2")
         .withUserConfiguration(PublicThreadPoolTaskExecutor.class, TestAnnotationsResource.class)
         .run(context -> {
             MvcUtils.assertGetJsonAsyncResponses(context, TestAnnotationsResource.RESPONSE,
@@ -66,7 +181,12 @@ class WebAsyncAutoConfigurationTest {
                             TestAnnotationsResource.GET_POOL_NAME_RESPONSE_PATH,
                             TestAnnotationsResource.GET_POOL_NAME_RESPONSE_STREAM_PATH,
                             TestAnnotationsResource.GET_POOL_EXECUTOR_RESPONSE_PATH,
-                            TestAnnotationsResource.GET_POOL_EXECUTOR_RESPONSE_STREAM_PATH
+                            TestAnnotationsResource.GET_POOL_EXECUTOR_RESPONSE_STREAM_PATH,
+                            TestAnnotationsResource.GET_POOL_PROPERTIES_RESPONSE_PATH,
+                            TestAnnotationsResource.GET_POOL_COMPLETABLE_RESPONSE_PATH,
+                            TestAnnotationsResource.GET_POOL_DEFERRED_RESPONSE_PATH,
+                            TestAnnotationsResource.GET_POOL_STREAMING_RESPONSE_PATH,
+                            TestAnnotationsResource.GET_POOL_EMITTER_RESPONSE_PATH
                     }
             );
             MvcUtils.assertGetAsyncResponsesTimeout(context,
@@ -17,8 +17,14 @@
 package org.flcit.springboot.web.async.annotation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -26,25 +32,40 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.flcit.commons.core.functional.callable.CallableThrowable;
 import org.flcit.springboot.commons.test.MockitoBaseTest;
 import org.flcit.springboot.web.async.annotation.aspect.AspectWebAsync;
+import org.flcit.springboot.web.async.annotation.aspect.WebAsyncDispatchPlan;
+import org.flcit.springboot.web.async.batch.WebAsyncBatcher;
+import org.flcit.springboot.web.async.context.WebAsyncContextPropagators;
 import org.flcit.springboot.web.async.executor.BasicAsyncTaskExecutor;
 import org.flcit.springboot.web.async.executor.PublicSimpleAsyncTaskExecutorImplements;
+import org.flcit.springboot.web.async.hedge.WebAsyncHedge;
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
 import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+import org.flcit.springboot.web.async.util.WebAsyncTaskUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 class AspectWebAsyncTest implements MockitoBaseTest {
 
@@ -70,74 +91,26 @@ class AspectWebAsyncTest implements MockitoBaseTest {
         }
     }
 
-    private static final WebAsync WEB_ASYNC_TIMEOUT = new WebAsync() {
-        @Override
-        public Class<? extends Annotation> annotationType() {
-            return WebAsync.class;
-        }
-        @Override
-        public String value() {
-            return "test";
-        }
-        @Override
-        public long timeout() {
-            return -1;
-        }
-        @Override
-        public Class<? extends AsyncTaskExecutor> executor() {
-            return AsyncTaskExecutor.class;
-        }
-    };
-
-    private static final WebAsync WEB_ASYNC_EXECUTOR = new WebAsync() {
-        @Override
-        public Class<? extends Annotation> annotationType() {
-            return WebAsync.class;
-        }
-        @Override
-        public String value() {
-            return null;
-        }
-        @Override
-        public long timeout() {
-            return 0;
-        }
-        @Override
-        public Class<? extends AsyncTaskExecutor> executor() {
-            return PublicSimpleAsyncTaskExecutorImplements.class;
-        }
-    };
-
-    private static final WebAsync WEB_ASYNC_NO_EXECUTOR = new WebAsync() {
-        @Override
-        public Class<? extends Annotation> annotationType() {
-            return WebAsync.class;
-        }
-        @Override
-        public String value() {
-            return null;
-        }
-        @Override
-        public long timeout() {
-            return -1;
-        }
-        @Override
-        public Class<? extends AsyncTaskExecutor> executor() {
-            return AsyncTaskExecutor.class;
-        }
-    };
+    private static final WebAsync WEB_ASYNC_TIMEOUT = getWebAsync("getTimeout");
+    private static final WebAsync WEB_ASYNC_EXECUTOR = getWebAsync("getExecutor");
+    private static final WebAsync WEB_ASYNC_NO_EXECUTOR = getWebAsync("getNoExecutor");
 
     @SuppressWarnings("unchecked")
     @Test
     void activateTest() throws Throwable {
+        ReflectionTestUtils.setField(webAsyncTaskService, "contextPropagators", WebAsyncContextPropagators.none());
         when(methodSignature.getMethod()).thenReturn(METHOD);
         when(proceedingJoinPoint.getSignature()).thenReturn(methodSignature);
         when(beanFactory.getBean(anyString(), eq(AsyncTaskExecutor.class))).thenReturn(null);
         when(webAsyncTaskService.send(isNull(), any(AsyncTaskExecutor.class), any(Callable.class))).thenCallRealMethod();
         WebAsyncTask<Object> webAsyncTask = getAspectWebAsync().activate(proceedingJoinPoint, WEB_ASYNC_TIMEOUT);
-        assertInstanceOf(SimpleAsyncTaskExecutor.class, webAsyncTask.getExecutor());
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, getExecutor(webAsyncTask));
         assertNull(webAsyncTask.getTimeout());
-        assertInstanceOf(CallableThrowable.class, webAsyncTask.getCallable());
+        assertInstanceOf(WebAsyncTaskCallable.class, webAsyncTask.getCallable());
+        when(proceedingJoinPoint.proceed()).thenReturn(WebAsyncTaskUtils.send("TEST"));
+        assertEquals("TEST", webAsyncTask.getCallable().call());
+        when(proceedingJoinPoint.proceed()).thenReturn(WebAsyncTaskUtils.send());
+        assertNull(webAsyncTask.getCallable().call());
 
         final PublicSimpleAsyncTaskExecutorImplements executor = new PublicSimpleAsyncTaskExecutorImplements();
         executor.setTimeout(60000L);
@@ -146,16 +119,150 @@ class AspectWebAsyncTest implements MockitoBaseTest {
         final AspectWebAsync aspectWebAsync = getAspectWebAsync();
         webAsyncTask = aspectWebAsync.activate(proceedingJoinPoint, WEB_ASYNC_EXECUTOR);
         assertEquals(60000L, webAsyncTask.getTimeout());
-        assertInstanceOf(PublicSimpleAsyncTaskExecutorImplements.class, webAsyncTask.getExecutor());
+        assertInstanceOf(PublicSimpleAsyncTaskExecutorImplements.class, getExecutor(webAsyncTask));
 
         webAsyncTask = aspectWebAsync.activate(proceedingJoinPoint, WEB_ASYNC_TIMEOUT);
-        assertEquals(executor, webAsyncTask.getExecutor());
+        assertEquals(executor, getExecutor(webAsyncTask));
 
         webAsyncTask = getAspectWebAsync().activate(proceedingJoinPoint, WEB_ASYNC_NO_EXECUTOR);
-        assertInstanceOf(SimpleAsyncTaskExecutor.class, webAsyncTask.getExecutor());
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, getExecutor(webAsyncTask));
         when(beanFactory.getBean(anyString(), eq(AsyncTaskExecutor.class))).thenReturn(new BasicAsyncTaskExecutor());
         webAsyncTask = getAspectWebAsync().activate(proceedingJoinPoint, WEB_ASYNC_TIMEOUT);
-        assertInstanceOf(AsyncListenableTaskExecutor.class, webAsyncTask.getExecutor());
+        assertInstanceOf(AsyncListenableTaskExecutor.class, getExecutor(webAsyncTask));
+    }
+
+    @Test
+    void dispatchPlan() throws Exception {
+        final AspectWebAsync aspectWebAsync = afterSingletonsInstantiated(new ValidResource());
+        final WebAsyncDispatchPlan plan = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("get"));
+        assertInstanceOf(PublicSimpleAsyncTaskExecutorImplements.class, plan.getExecutor());
+        assertEquals(60000L, plan.getTimeout());
+        assertEquals(1000L, aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("getTimeout")).getTimeout());
+        assertNull(aspectWebAsync.getDispatchPlan(METHOD));
+    }
+
+    @Test
+    void coalesce() throws Exception {
+        final AspectWebAsync aspectWebAsync = afterSingletonsInstantiated(new ValidResource());
+        final WebAsyncDispatchPlan plan = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("get"));
+        final WebAsyncDispatchPlan coalescedPlan = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("getCoalesced", String.class, String.class));
+        assertTrue(coalescedPlan.isCoalesce());
+        assertFalse(plan.isCoalesce());
+        assertEquals(coalescedPlan.getKey(null, new Object[] { "a", "1" }), coalescedPlan.getKey(null, new Object[] { "a", "2" }));
+        assertNotEquals(coalescedPlan.getKey(null, new Object[] { "a", "1" }), coalescedPlan.getKey(null, new Object[] { "b", "1" }));
+        assertNotEquals(coalescedPlan.getKey(null, new Object[] { "a" }), plan.getKey(null, new Object[] { "a" }));
+    }
+
+    @Test
+    void cache() throws Exception {
+        final AspectWebAsync aspectWebAsync = afterSingletonsInstantiated(new ValidResource());
+        assertNull(aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("get")).getCache());
+        assertNotNull(aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("getCached")).getCache());
+    }
+
+    @Test
+    void bulkhead() throws Exception {
+        final AspectWebAsync aspectWebAsync = afterSingletonsInstantiated(new ValidResource());
+        assertNull(aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("get")).getBulkhead());
+        final Method limited = ValidResource.class.getDeclaredMethod("getLimited", String.class);
+        final WebAsyncDispatchPlan limitedPlan = aspectWebAsync.getDispatchPlan(limited);
+        assertEquals(2, limitedPlan.getBulkhead().getMaxConcurrency());
+        assertEquals("tenant", limitedPlan.getQuotaKey(null, new Object[] { "tenant" }));
+        assertEquals(limited, limitedPlan.getQuotaKey(null, new Object[] { null }));
+    }
+
+    @Test
+    void batch() throws Exception {
+        final AspectWebAsync aspectWebAsync = afterSingletonsInstantiated(new ValidResource());
+        final WebAsyncDispatchPlan plan = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("get"));
+        assertFalse(plan.isBatch());
+        assertNull(plan.getBatcher(new ValidResource()));
+        final WebAsyncDispatchPlan batchedPlan = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("getBatched", String.class));
+        assertTrue(batchedPlan.isBatch());
+        assertEquals("a", batchedPlan.getBatchKey(null, new Object[] { "a" }));
+        final WebAsyncBatcher<Object, Object> batcher = batchedPlan.getBatcher(new ValidResource());
+        assertSame(batcher, batchedPlan.getBatcher(new ValidResource()));
+        final CompletableFuture<Object> first = batcher.submit("a");
+        final CompletableFuture<Object> second = batcher.submit("b");
+        assertEquals("A", first.get(5, TimeUnit.SECONDS));
+        assertEquals("B", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, batcher.getBatchCount());
+    }
+
+    @Test
+    void hedge() throws Exception {
+        final AspectWebAsync aspectWebAsync = afterSingletonsInstantiated(new ValidResource());
+        final WebAsyncDispatchPlan plan = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("get"));
+        assertNull(plan.getHedge());
+        final WebAsyncHedge hedge = aspectWebAsync.getDispatchPlan(ValidResource.class.getDeclaredMethod("getHedged")).getHedge();
+        assertSame(plan.getExecutor(), hedge.getExecutor());
+        assertEquals(0, hedge.getDelay());
+    }
+
+    @Test
+    void missingExecutor() {
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new MissingResource()));
+    }
+
+    @Test
+    void missingBatchMethod() {
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new BatchResource()));
+    }
+
+    @Test
+    void incompatibleHedge() {
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new HedgeResource()));
+    }
+
+    @Test
+    void limitedCoalesce() {
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new LimitedCoalesceResource()));
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new PrioritizedBatchResource()));
+    }
+
+    @Test
+    void emitter() {
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new EmitterResource()));
+    }
+
+    @Test
+    void completionStage() {
+        assertNotNull(afterSingletonsInstantiated(new CompletionStageResource()));
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new CachedCompletionStageResource()));
+    }
+
+    @Test
+    void deferredResult() {
+        assertNotNull(afterSingletonsInstantiated(new DeferredResultResource()));
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new LimitedDeferredResultResource()));
+    }
+
+    @Test
+    void streaming() {
+        assertNotNull(afterSingletonsInstantiated(new StreamingResource()));
+        assertThrows(IllegalStateException.class, () -> afterSingletonsInstantiated(new PrioritizedStreamingResource()));
+    }
+
+    private static AsyncTaskExecutor getExecutor(WebAsyncTask<Object> webAsyncTask) {
+        return ((WebAsyncTaskCallable<?>) webAsyncTask.getCallable()).getExecutor();
+    }
+
+    private static WebAsync getWebAsync(String methodName) {
+        try {
+            return AnnotatedResource.class.getDeclaredMethod(methodName).getAnnotation(WebAsync.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private AspectWebAsync afterSingletonsInstantiated(Object resource) {
+        final DefaultListableBeanFactory listableBeanFactory = new DefaultListableBeanFactory();
+        listableBeanFactory.registerSingleton(PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, new PublicSimpleAsyncTaskExecutorImplements());
+        listableBeanFactory.registerSingleton("resource", resource);
+        final AspectWebAsync aspectWebAsync = new AspectWebAsync(webAsyncTaskService);
+        aspectWebAsync.setBeanFactory(listableBeanFactory);
+        aspectWebAsync.afterSingletonsInstantiated();
+        return aspectWebAsync;
     }
 
     private AspectWebAsync getAspectWebAsync() {
@@ -170,4 +277,140 @@ class AspectWebAsyncTest implements MockitoBaseTest {
         }
     }
 
+    static class AnnotatedResource {
+        @WebAsync(value = "test", timeout = -1)
+        WebAsyncTask<Object> getTimeout() {
+            return null;
+        }
+        @WebAsync(executor = PublicSimpleAsyncTaskExecutorImplements.class)
+        WebAsyncTask<Object> getExecutor() {
+            return null;
+        }
+        @WebAsync(timeout = -1)
+        WebAsyncTask<Object> getNoExecutor() {
+            return null;
+        }
+    }
+
+    static class ValidResource {
+        @WebAsync(PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME)
+        WebAsyncTask<Object> get() {
+            return null;
+        }
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, timeout = 1000)
+        WebAsyncTask<Object> getTimeout() {
+            return null;
+        }
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, coalesce = true, key = "#p0")
+        WebAsyncTask<Object> getCoalesced(String nom, String ignored) {
+            return null;
+        }
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, cacheTtl = 1000, cacheSize = 10)
+        WebAsyncTask<Object> getCached() {
+            return null;
+        }
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, maxConcurrency = 2, quotaKey = "#p0")
+        WebAsyncTask<Object> getLimited(String tenant) {
+            return null;
+        }
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, batch = "getAll", batchSize = 2, batchWindow = 60000)
+        WebAsyncTask<Object> getBatched(String id) {
+            return null;
+        }
+        Map<String, String> getAll(List<String> ids) {
+            return ids.stream().collect(Collectors.toMap(Function.identity(), String::toUpperCase));
+        }
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, hedgePercentile = 99, hedgeDelay = 50)
+        WebAsyncTask<Object> getHedged() {
+            return null;
+        }
+    }
+
+    static class HedgeResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, coalesce = true, hedgeDelay = 50)
+        WebAsyncTask<Object> get() {
+            return null;
+        }
+    }
+
+    static class LimitedCoalesceResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, coalesce = true, maxConcurrency = 2)
+        WebAsyncTask<Object> get() {
+            return null;
+        }
+    }
+
+    static class PrioritizedBatchResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, batch = "getAll", priority = 5)
+        WebAsyncTask<Object> getBatched(String id) {
+            return null;
+        }
+        Map<String, String> getAll(List<String> ids) {
+            return null;
+        }
+    }
+
+    static class BatchResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, batch = "missing")
+        WebAsyncTask<Object> get(String id) {
+            return null;
+        }
+    }
+
+    static class EmitterResource {
+        @WebAsync
+        SseEmitter get() {
+            return null;
+        }
+    }
+
+    static class CompletionStageResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, timeout = 1000)
+        CompletableFuture<Object> get() {
+            return null;
+        }
+    }
+
+    static class CachedCompletionStageResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, cacheTtl = 1000)
+        CompletableFuture<Object> get() {
+            return null;
+        }
+    }
+
+    static class DeferredResultResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, timeout = 1000)
+        DeferredResult<Object> get() {
+            return null;
+        }
+    }
+
+    static class LimitedDeferredResultResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, maxConcurrency = 2)
+        DeferredResult<Object> get() {
+            return null;
+        }
+    }
+
+    static class StreamingResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, timeout = 1000)
+        StreamingResponseBody get() {
+            return null;
+        }
+    }
+
+    static class PrioritizedStreamingResource {
+        @WebAsync(value = PublicSimpleAsyncTaskExecutorImplements.BEAN_NAME, priority = 5)
+        StreamingResponseBody get() {
+            return null;
+        }
+    }
+
+    static class MissingResource {
+        @WebAsync("missing")
+        WebAsyncTask<Object> get() {
+            return null;
+        }
+    }
+
 }
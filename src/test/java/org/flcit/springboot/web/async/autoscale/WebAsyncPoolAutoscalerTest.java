@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.autoscale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+import org.flcit.springboot.web.async.executor.WebAsyncThreadPoolTaskExecutor;
+
+class WebAsyncPoolAutoscalerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void grow() {
+        final WebAsyncPoolAutoscaler autoscaler = new WebAsyncPoolAutoscaler(1, 10, 100, 0.75);
+        assertNull(autoscaler.sample(stats(4, 4, 100, 0), 0));
+        assertEquals(8, autoscaler.sample(stats(4, 4, 100, 10), SECOND));
+        assertEquals(10000d, autoscaler.getQueueLatency());
+        assertEquals(10d, autoscaler.getCompletionRate());
+        assertEquals(10, autoscaler.sample(stats(8, 8, 100, 10), 2 * SECOND));
+        assertTrue(Double.isInfinite(autoscaler.getQueueLatency()));
+        assertNull(autoscaler.sample(stats(10, 10, 100, 10), 3 * SECOND));
+    }
+
+    @Test
+    void shrink() {
+        final WebAsyncPoolAutoscaler autoscaler = new WebAsyncPoolAutoscaler(2, 10, 100, 0.75);
+        autoscaler.sample(stats(8, 0, 0, 0), 0);
+        assertEquals(6, autoscaler.sample(stats(8, 0, 0, 0), SECOND));
+        assertEquals(5, autoscaler.sample(stats(6, 3, 0, 100), 2 * SECOND));
+        assertNull(autoscaler.sample(stats(5, 4, 0, 200), 3 * SECOND));
+        assertEquals(0.8d, autoscaler.getUtilization());
+        assertNull(autoscaler.sample(stats(5, 5, 2, 300), 4 * SECOND));
+        assertEquals(4, autoscaler.sample(stats(5, 0, 0, 300), 5 * SECOND));
+        assertEquals(3, autoscaler.sample(stats(4, 0, 0, 300), 6 * SECOND));
+        assertEquals(2, autoscaler.sample(stats(3, 0, 0, 300), 7 * SECOND));
+        assertNull(autoscaler.sample(stats(2, 0, 0, 300), 8 * SECOND));
+    }
+
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncPoolAutoscaler(4, 2, 100, 0.75));
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncPoolAutoscaler(1, 2, 0, 0.75));
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncPoolAutoscaler(1, 2, 100, 1.5));
+    }
+
+    @Test
+    void controller() throws Exception {
+        final WebAsyncThreadPoolTaskExecutor executor = new WebAsyncThreadPoolTaskExecutor("scaled");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            beanFactory.addBean("scaled", executor);
+            final WebAsyncAutoscalingController controller = new WebAsyncAutoscalingController(beanFactory.getBeanProvider(WebAsyncTaskPool.class));
+            final WebAsyncPoolAutoscaler autoscaler = new WebAsyncPoolAutoscaler(1, 4, 100, 0.75);
+            controller.register("scaled", autoscaler, 60000);
+            assertSame(autoscaler, controller.getAutoscaler("scaled"));
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            controller.sample();
+            controller.sample();
+            assertEquals(2, executor.getCorePoolSize());
+            assertEquals(2, executor.getMaxPoolSize());
+            controller.start();
+            assertTrue(controller.isRunning());
+            controller.stop();
+            assertFalse(controller.isRunning());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static WebAsyncTaskPoolStats stats(int coreSize, int activeCount, int queueSize, long completedTaskCount) {
+        return new WebAsyncTaskPoolStats(coreSize, coreSize, Integer.MAX_VALUE, coreSize, activeCount, queueSize, completedTaskCount);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectedExecutionHandler;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy;
+
+class WebAsyncBatcherTest {
+
+    @Test
+    void maxSize() throws Exception {
+        final List<List<String>> loads = Collections.synchronizedList(new ArrayList<>());
+        final WebAsyncBatcher<String, String> batcher = new WebAsyncBatcher<>(new SimpleAsyncTaskExecutor(), 2, 60000, keys -> {
+            loads.add(keys);
+            return Collections.singletonMap("a", "A");
+        });
+        final CompletableFuture<String> first = batcher.submit("a");
+        final CompletableFuture<String> duplicate = batcher.submit("a");
+        assertFalse(first.isDone());
+        final CompletableFuture<String> missing = batcher.submit("b");
+        assertEquals("A", first.get(5, TimeUnit.SECONDS));
+        assertEquals("A", duplicate.get(5, TimeUnit.SECONDS));
+        assertNull(missing.get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), loads);
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(2, batcher.getKeyCount());
+    }
+
+    @Test
+    void window() throws Exception {
+        final WebAsyncBatcher<String, String> batcher = new WebAsyncBatcher<>(new SimpleAsyncTaskExecutor(), 100, 20,
+                keys -> Collections.singletonMap(keys.get(0), String.valueOf(keys.size())));
+        final CompletableFuture<String> first = batcher.submit("a");
+        batcher.submit("b");
+        assertEquals("2", first.get(5, TimeUnit.SECONDS));
+        assertEquals("1", batcher.submit("c").get(5, TimeUnit.SECONDS));
+        assertEquals(2, batcher.getBatchCount());
+    }
+
+    @Test
+    void failure() {
+        final WebAsyncBatcher<String, String> batcher = new WebAsyncBatcher<>(new SimpleAsyncTaskExecutor(), 1, 60000, keys -> {
+            throw new IOException("unavailable");
+        });
+        final ExecutionException exception = assertThrows(ExecutionException.class, () -> batcher.submit("a").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, exception.getCause());
+        final WebAsyncBatcher<String, String> rejecting = new WebAsyncBatcher<>(new TaskExecutorAdapter(task -> {
+            throw new TaskRejectedException("full");
+        }), 1, 60000, keys -> Collections.emptyMap());
+        assertInstanceOf(TaskRejectedException.class, assertThrows(ExecutionException.class, () -> rejecting.submit("a").get()).getCause());
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncBatcher<String, String>(new SimpleAsyncTaskExecutor(), 0, 10, keys -> null));
+    }
+
+    @Test
+    void saturatedWindow() throws Exception {
+        assertRejectedWindow(new WebAsyncRejectedExecutionHandler("batch", WebAsyncRejectionPolicy.CALLER_RUNS, null, 0));
+        assertRejectedWindow(new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static void assertRejectedWindow(RejectedExecutionHandler handler) throws Exception {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(handler);
+        executor.initialize();
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> { });
+            final AtomicBoolean loaded = new AtomicBoolean();
+            final WebAsyncBatcher<String, String> batcher = new WebAsyncBatcher<>(executor, 100, 10, keys -> {
+                loaded.set(true);
+                return Collections.emptyMap();
+            });
+            assertInstanceOf(TaskRejectedException.class, assertThrows(ExecutionException.class, () -> batcher.submit("a").get(5, TimeUnit.SECONDS)).getCause());
+            assertFalse(loaded.get());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+}
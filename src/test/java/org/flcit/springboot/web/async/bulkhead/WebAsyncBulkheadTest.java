@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+
+class WebAsyncBulkheadTest {
+
+    @Test
+    void acquire() {
+        final WebAsyncBulkhead bulkhead = new WebAsyncBulkhead("test", 2);
+        final WebAsyncBulkhead.Permit first = bulkhead.acquire("a");
+        bulkhead.acquire("a");
+        assertThrows(WebAsyncTaskRejectedException.class, () -> bulkhead.acquire("a"));
+        assertEquals(1, bulkhead.getRejectedCount());
+        bulkhead.acquire("b");
+        assertEquals(2, bulkhead.getInFlight("a"));
+        assertEquals(1, bulkhead.getInFlight("b"));
+        first.release();
+        first.release();
+        assertEquals(1, bulkhead.getInFlight("a"));
+        bulkhead.acquire("a").release();
+        assertEquals(1, bulkhead.getInFlight("a"));
+        bulkhead.acquire("c").release();
+        assertEquals(0, bulkhead.getInFlight("c"));
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncBulkhead("test", 0));
+    }
+
+}
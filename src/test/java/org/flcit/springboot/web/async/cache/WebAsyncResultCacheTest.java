@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class WebAsyncResultCacheTest {
+
+    @Test
+    void ttl() {
+        final AtomicLong clock = new AtomicLong();
+        final WebAsyncResultCache cache = new WebAsyncResultCache(1000, 10, clock::get);
+        assertNull(cache.get("a"));
+        cache.put("a", "A");
+        cache.put("b", null);
+        assertEquals("A", cache.get("a").get());
+        assertNull(cache.get("b").get());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("A", cache.get("a").get());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void maxSize() {
+        final AtomicLong clock = new AtomicLong();
+        final WebAsyncResultCache cache = new WebAsyncResultCache(60000, 2, clock::get);
+        cache.put("a", "A");
+        clock.incrementAndGet();
+        cache.put("b", "B");
+        clock.incrementAndGet();
+        cache.get("a");
+        clock.incrementAndGet();
+        cache.put("c", "C");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("A", cache.get("a").get());
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c").get());
+    }
+
+    @Test
+    void evictExpired() {
+        final AtomicLong clock = new AtomicLong();
+        final WebAsyncResultCache cache = new WebAsyncResultCache(1000, 32, clock::get);
+        for (int i = 0; i < 32; i++) {
+            cache.put(i, i);
+        }
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1000));
+        cache.put("a", "A");
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+        for (int i = 0; i < 32; i++) {
+            clock.incrementAndGet();
+            cache.put(i, i);
+        }
+        assertEquals(30, cache.size());
+        assertEquals(3, cache.getEvictionCount());
+        assertNull(cache.get("a"));
+        assertEquals(31, cache.get(31).get());
+    }
+
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncResultCache(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncResultCache(1000, 0));
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.cancellation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+class WebAsyncCancellationInterceptorTest {
+
+    private final WebAsyncCancellationInterceptor interceptor = new WebAsyncCancellationInterceptor();
+
+    @Test
+    void timeout() throws Exception {
+        final NativeWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+        final Callable<String> task = new WebAsyncTaskCallable<>("test", null, () -> "TEST");
+        interceptor.beforeConcurrentHandling(request, task);
+        interceptor.preProcess(request, task);
+        final WebAsyncCancellation cancellation = WebAsyncCancellation.current();
+        assertNotNull(cancellation);
+        final AtomicInteger callbacks = new AtomicInteger();
+        cancellation.onCancel(callbacks::incrementAndGet);
+        assertFalse(cancellation.isCancelled());
+        cancellation.throwIfCancelled();
+
+        assertSame(CallableProcessingInterceptor.RESULT_NONE, interceptor.handleTimeout(request, task));
+        assertTrue(cancellation.isCancelled());
+        assertThrows(CancellationException.class, cancellation::throwIfCancelled);
+        assertEquals(1, callbacks.get());
+        interceptor.handleError(request, task, new IllegalStateException());
+        assertEquals(1, callbacks.get());
+        cancellation.onCancel(callbacks::incrementAndGet);
+        assertEquals(2, callbacks.get());
+
+        interceptor.postProcess(request, task, null);
+        assertNull(WebAsyncCancellation.current());
+    }
+
+    @Test
+    void notWebAsyncTaskCallable() throws Exception {
+        final NativeWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+        final Callable<String> task = () -> "TEST";
+        interceptor.beforeConcurrentHandling(request, task);
+        interceptor.preProcess(request, task);
+        assertNull(WebAsyncCancellation.current());
+        assertSame(CallableProcessingInterceptor.RESULT_NONE, interceptor.handleError(request, task, new IllegalStateException()));
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+
+class WebAsyncContextInterceptorTest {
+
+    private final WebAsyncTaskService service = new WebAsyncTaskService(null, new WebAsyncContextPropagators(Collections.singletonList(new MdcContextPropagator())));
+    private final WebAsyncContextInterceptor interceptor = new WebAsyncContextInterceptor();
+
+    @AfterEach
+    void clear() {
+        MDC.clear();
+    }
+
+    @Test
+    void context() throws Exception {
+        MDC.put("trace", "SENDER");
+        final Callable<?> task = service.send(null, new SimpleAsyncTaskExecutor(), () -> MDC.get("trace")).getCallable();
+        MDC.put("trace", "WORKER");
+        interceptor.preProcess(null, task);
+        assertEquals("SENDER", task.call());
+        interceptor.postProcess(null, task, "SENDER");
+        assertEquals("WORKER", MDC.get("trace"));
+    }
+
+    @Test
+    void wrap() throws Exception {
+        MDC.put("trace", "SENDER");
+        final Callable<String> callable = new WebAsyncContextPropagators(Arrays.asList(new MdcContextPropagator())).capture().wrap(() -> MDC.get("trace"));
+        MDC.clear();
+        assertEquals("SENDER", callable.call());
+        assertNull(MDC.get("trace"));
+    }
+
+    @Test
+    void noContext() throws Exception {
+        MDC.put("trace", "SENDER");
+        final Callable<?> task = new WebAsyncTaskService().send(null, new SimpleAsyncTaskExecutor(), () -> MDC.get("trace")).getCallable();
+        assertNull(((WebAsyncTaskCallable<String>) task).getContext());
+        assertTrue(WebAsyncContextPropagators.none().capture().isEmpty());
+        MDC.clear();
+        interceptor.preProcess(null, task);
+        assertNull(task.call());
+    }
+
+}
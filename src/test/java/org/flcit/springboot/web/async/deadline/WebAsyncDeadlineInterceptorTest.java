@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+
+class WebAsyncDeadlineInterceptorTest {
+
+    private final WebAsyncTaskService service = new WebAsyncTaskService();
+    private final WebAsyncDeadlineInterceptor interceptor = new WebAsyncDeadlineInterceptor();
+
+    @Test
+    void deadline() throws Exception {
+        final Callable<?> task = service.send(60000L, new SimpleAsyncTaskExecutor(), () -> "TEST").getCallable();
+        final WebAsyncDeadline deadline = ((WebAsyncTaskCallable<String>) task).getDeadline();
+        assertTrue(deadline.getRemaining() > 50000L);
+        interceptor.preProcess(null, task);
+        assertSame(deadline, WebAsyncDeadline.current());
+        interceptor.postProcess(null, task, "TEST");
+        assertNull(WebAsyncDeadline.current());
+    }
+
+    @Test
+    void expired() throws Exception {
+        final Callable<?> task = service.send(1L, new SimpleAsyncTaskExecutor(), () -> "TEST").getCallable();
+        Thread.sleep(10);
+        assertTrue(((WebAsyncTaskCallable<String>) task).getDeadline().isExpired());
+        assertThrows(AsyncRequestTimeoutException.class, () -> interceptor.preProcess(null, task));
+        assertNull(WebAsyncDeadline.current());
+    }
+
+    @Test
+    void noDeadline() throws Exception {
+        final Callable<?> task = service.send(null, new SimpleAsyncTaskExecutor(), () -> "TEST").getCallable();
+        assertNull(((WebAsyncTaskCallable<String>) task).getDeadline());
+        interceptor.preProcess(null, task);
+        assertNull(WebAsyncDeadline.current());
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPool;
+import org.flcit.springboot.web.async.endpoint.WebAsyncPoolsEndpoint.PoolDescriptor;
+import org.flcit.springboot.web.async.executor.ForkJoinPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.WebAsyncThreadPoolTaskExecutor;
+
+class WebAsyncPoolsEndpointTest {
+
+    @Test
+    void resize() {
+        final WebAsyncThreadPoolTaskExecutor reports = new WebAsyncThreadPoolTaskExecutor("reports");
+        reports.setCorePoolSize(2);
+        reports.setMaxPoolSize(4);
+        reports.setQueueCapacity(10);
+        reports.initialize();
+        final ForkJoinPoolTaskExecutor stealing = new ForkJoinPoolTaskExecutor("stealing", 2);
+        try {
+            final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            beanFactory.addBean("reports", reports);
+            beanFactory.addBean("stealing", stealing);
+            final WebAsyncPoolsEndpoint endpoint = new WebAsyncPoolsEndpoint(beanFactory.getBeanProvider(WebAsyncTaskPool.class));
+            assertEquals(2, endpoint.pools().size());
+            assertEquals(4, endpoint.pool("reports").getStats().getMaxSize());
+            assertNull(endpoint.pool("unknown"));
+            final PoolDescriptor resized = endpoint.resize("reports", 6, 8, 20, 5000L);
+            assertEquals(6, resized.getStats().getCoreSize());
+            assertEquals(8, reports.getMaxPoolSize());
+            assertEquals(20, resized.getStats().getQueueCapacity());
+            assertEquals(5000L, resized.getTimeout());
+            assertNull(endpoint.resize("reports", null, null, null, 0L).getTimeout());
+            assertNull(endpoint.resize("unknown", 1, 1, null, null));
+            assertThrows(InvalidEndpointRequestException.class, () -> endpoint.resize("reports", 10, null, null, null));
+            assertThrows(InvalidEndpointRequestException.class, () -> endpoint.resize("stealing", 1, 1, null, null));
+        } finally {
+            reports.shutdown();
+            stealing.destroy();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.async.limit.AimdConcurrencyLimit;
+
+class ConcurrencyLimitTaskExecutorTest {
+
+    @Test
+    void limit() throws Exception {
+        final PublicThreadPoolTaskExecutorImplements pool = new PublicThreadPoolTaskExecutorImplements();
+        final ConcurrencyLimitTaskExecutor executor = new ConcurrencyLimitTaskExecutor(pool, new AimdConcurrencyLimit(2, 1, 2, 0.5, null));
+        executor.afterPropertiesSet();
+        assertEquals(PublicThreadPoolTaskExecutorImplements.BEAN_NAME, executor.getExecutorName());
+        assertEquals(pool.getTimeout(), executor.getTimeout());
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Future<?> first = executor.submit(() -> { latch.await(); return null; });
+            final Future<?> second = executor.submit(() -> { latch.await(); return null; });
+            assertEquals(2, executor.getInFlight());
+            assertThrows(WebAsyncTaskRejectedException.class, () -> executor.submit(() -> null));
+            assertEquals(1, executor.getRejectedCount());
+            latch.countDown();
+            first.get();
+            second.get();
+            assertEquals(0, executor.getInFlight());
+            assertEquals("TEST", executor.submit(() -> "TEST").get());
+
+            final Future<?> cancelled = executor.submit(() -> { Thread.sleep(10000); return null; });
+            cancelled.cancel(true);
+            assertEquals(0, executor.getInFlight());
+            assertEquals(1, executor.getLimit());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ForkJoinPoolTaskExecutorTest {
+
+    @Test
+    void submit() throws Exception {
+        final ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor("fork-join", 2);
+        executor.setTimeout(5000L);
+        try {
+            assertEquals("fork-join", executor.getExecutorName());
+            assertEquals(5000L, executor.getTimeout());
+            assertTrue(executor.getForkJoinPool().getAsyncMode());
+            assertTrue(executor.submit(() -> Thread.currentThread().getName()).get().startsWith("fork-join-"));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void cancel() throws Exception {
+        final ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor("fork-join", 2);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            final Future<?> future = executor.submit(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(future.cancel(true));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void block() throws Exception {
+        final ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor("fork-join", 2);
+        try {
+            final CountDownLatch latch = new CountDownLatch(4);
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    try {
+                        ForkJoinPoolTaskExecutor.block(() -> {
+                            latch.countDown();
+                            return latch.await(5, TimeUnit.SECONDS);
+                        });
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals("io", executor.submit(() -> {
+                try {
+                    return ForkJoinPoolTaskExecutor.block(() -> { throw new IOException("io"); });
+                } catch (IOException e) {
+                    return e.getMessage();
+                }
+            }).get());
+            assertEquals("TEST", ForkJoinPoolTaskExecutor.block(() -> "TEST"));
+            assertThrows(IOException.class, () -> ForkJoinPoolTaskExecutor.block(() -> { throw new IOException(); }));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+}
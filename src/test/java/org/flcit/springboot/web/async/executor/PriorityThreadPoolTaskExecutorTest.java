@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+class PriorityThreadPoolTaskExecutorTest {
+
+    @Test
+    void priority() throws Exception {
+        final PriorityThreadPoolTaskExecutor executor = create(60000, 10);
+        try {
+            assertSame(executor, executor.withPriority(PriorityThreadPoolTaskExecutor.DEFAULT_PRIORITY));
+            final CountDownLatch latch = block(executor);
+            final List<String> order = Collections.synchronizedList(new ArrayList<>());
+            executor.submit(() -> order.add("default"));
+            final Future<?> last = executor.withPriority(-1).submit(() -> order.add("low"));
+            executor.withPriority(5).submit(() -> order.add("high"));
+            executor.withPriority(1).submit(() -> order.add("one"));
+            assertEquals(4, executor.getQueueSize());
+            assertEquals(6, executor.getThreadPoolExecutor().getQueue().remainingCapacity());
+            latch.countDown();
+            last.get();
+            assertEquals(Arrays.asList("high", "one", "default", "low"), order);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void aging() throws Exception {
+        final PriorityThreadPoolTaskExecutor executor = create(1, 10);
+        try {
+            final CountDownLatch latch = block(executor);
+            final List<String> order = Collections.synchronizedList(new ArrayList<>());
+            executor.withPriority(-1).submit(() -> order.add("low"));
+            Thread.sleep(50);
+            final Future<?> last = executor.withPriority(5).submit(() -> order.add("high"));
+            latch.countDown();
+            last.get();
+            assertEquals(Arrays.asList("low", "high"), order);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void capacity() throws Exception {
+        final PriorityThreadPoolTaskExecutor executor = create(60000, 1);
+        try {
+            final CountDownLatch latch = block(executor);
+            executor.withPriority(1).submit(() -> { });
+            assertThrows(TaskRejectedException.class, () -> executor.withPriority(1).submit(() -> { }));
+            assertThrows(TaskRejectedException.class, () -> executor.submit(() -> { }));
+            latch.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void timedOffer() throws Exception {
+        final PriorityThreadPoolTaskExecutor executor = create(60000, 1);
+        try {
+            final CountDownLatch latch = block(executor);
+            final BlockingQueue<Runnable> queue = executor.getThreadPoolExecutor().getQueue();
+            executor.submit(() -> { });
+            final long start = System.nanoTime();
+            assertFalse(queue.offer(new PriorityTask<>(() -> { }, 1), 50, TimeUnit.MILLISECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+            latch.countDown();
+            assertTrue(queue.offer(new PriorityTask<>(() -> { }, 1), 5, TimeUnit.SECONDS));
+            assertThrows(IllegalArgumentException.class, () -> queue.offer(() -> { }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void decorator() throws Exception {
+        final PriorityThreadPoolTaskExecutor executor = new PriorityThreadPoolTaskExecutor("priority", 60000);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        final AtomicInteger decorated = new AtomicInteger();
+        executor.setTaskDecorator(task -> () -> {
+            decorated.incrementAndGet();
+            task.run();
+        });
+        executor.initialize();
+        try {
+            final CountDownLatch latch = block(executor);
+            final List<String> order = Collections.synchronizedList(new ArrayList<>());
+            final Future<?> last = executor.submit(() -> order.add("default"));
+            final Future<?> removed = executor.withPriority(1).submit(() -> order.add("removed"));
+            executor.withPriority(5).submit(() -> order.add("high"));
+            assertTrue(executor.getThreadPoolExecutor().remove((Runnable) removed));
+            latch.countDown();
+            last.get(5, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("high", "default"), order);
+            assertEquals(3, decorated.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static PriorityThreadPoolTaskExecutor create(long aging, int queueCapacity) {
+        final PriorityThreadPoolTaskExecutor executor = new PriorityThreadPoolTaskExecutor("priority", aging);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+    private static CountDownLatch block(PriorityThreadPoolTaskExecutor executor) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            latch.await();
+            return null;
+        });
+        started.await();
+        return latch;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.async.annotation.WebAsyncThreads;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+
+class VirtualThreadTaskExecutorTest {
+
+    @Test
+    void virtualThreads() throws Exception {
+        if (VirtualThreadTaskExecutor.isSupported()) {
+            final Thread thread = new VirtualThreadTaskExecutor().submit(Thread::currentThread).get();
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertTrue(thread.getName().startsWith(VirtualThreadTaskExecutor.DEFAULT_THREAD_NAME_PREFIX));
+            assertSame(AsyncTaskExecutorUtils.getDefaultExecutor(WebAsyncThreads.AUTO), AsyncTaskExecutorUtils.getDefaultExecutor(WebAsyncThreads.VIRTUAL));
+        } else {
+            assertThrows(IllegalStateException.class, VirtualThreadTaskExecutor::new);
+            assertNull(AsyncTaskExecutorUtils.getDefaultExecutor(WebAsyncThreads.AUTO));
+            assertNull(AsyncTaskExecutorUtils.getDefaultExecutor(WebAsyncThreads.VIRTUAL));
+        }
+        assertNull(AsyncTaskExecutorUtils.getDefaultExecutor(WebAsyncThreads.PLATFORM));
+    }
+
+}
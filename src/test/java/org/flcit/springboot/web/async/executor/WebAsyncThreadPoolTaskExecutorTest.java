@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import org.flcit.springboot.web.async.configuration.WebAsyncTaskPoolStats;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectedExecutionHandler;
+import org.flcit.springboot.web.async.rejection.WebAsyncRejectionPolicy;
+
+class WebAsyncThreadPoolTaskExecutorTest {
+
+    @Test
+    void resize() throws Exception {
+        final WebAsyncThreadPoolTaskExecutor executor = create(1, 2);
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Runnable blocking = () -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(blocking);
+            executor.execute(blocking);
+            executor.execute(blocking);
+            assertThrows(TaskRejectedException.class, () -> executor.execute(blocking));
+            executor.resize(null, null, 3);
+            executor.execute(blocking);
+            assertStats(executor.getStats(), 1, 1, 3, 3);
+            executor.resize(4, 4, 1);
+            assertEquals(4, executor.getCorePoolSize());
+            assertStats(executor.getStats(), 4, 4, 1, 0);
+            executor.execute(blocking);
+            assertThrows(TaskRejectedException.class, () -> executor.execute(blocking));
+            executor.resize(1, 2, null);
+            assertStats(executor.getStats(), 1, 2, 1, 1);
+            assertThrows(IllegalArgumentException.class, () -> executor.resize(3, null, null));
+            assertEquals(2, executor.getRejectedCount());
+            latch.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectedCount() throws Exception {
+        final WebAsyncThreadPoolTaskExecutor executor = new WebAsyncThreadPoolTaskExecutor("rejected");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new WebAsyncRejectedExecutionHandler("rejected", WebAsyncRejectionPolicy.CALLER_RUNS, null, 0));
+        executor.initialize();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch latch = new CountDownLatch(1);
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.execute(() -> { });
+            assertTrue(executor.submit(() -> { }).isDone());
+            assertEquals(0, executor.getRejectedCount());
+            executor.getThreadPoolExecutor().setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+            assertThrows(TaskRejectedException.class, () -> executor.submitListenable(() -> { }));
+            assertEquals(1, executor.getRejectedCount());
+            latch.countDown();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentOffer() throws Exception {
+        final BoundedTaskQueue queue = new BoundedTaskQueue(100);
+        final AtomicInteger accepted = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < 50; j++) {
+                    if (queue.offer(() -> { })) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, accepted.get());
+        assertEquals(100, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        final Iterator<Runnable> iterator = queue.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(1, queue.remainingCapacity());
+        assertTrue(queue.offer(() -> { }));
+        queue.drainTo(new ArrayList<>(), 10);
+        assertEquals(10, queue.remainingCapacity());
+        queue.clear();
+        assertEquals(100, queue.remainingCapacity());
+    }
+
+    @Test
+    void withoutQueue() {
+        final WebAsyncThreadPoolTaskExecutor executor = create(1, 0);
+        try {
+            assertThrows(IllegalStateException.class, () -> executor.resize(null, null, 10));
+            assertEquals(0, executor.getStats().getQueueCapacity());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void unboundedQueue() {
+        final WebAsyncThreadPoolTaskExecutor executor = create(1, Integer.MAX_VALUE);
+        try {
+            assertEquals(LinkedBlockingQueue.class, executor.getThreadPoolExecutor().getQueue().getClass());
+            assertEquals(Integer.MAX_VALUE, executor.getStats().getQueueCapacity());
+            assertThrows(IllegalStateException.class, () -> executor.resize(null, null, 10));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void threadPoolTaskExecutor() {
+        final PublicThreadPoolTaskExecutorImplements executor = new PublicThreadPoolTaskExecutorImplements();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(5);
+        executor.initialize();
+        try {
+            executor.resize(2, 3, null);
+            assertStats(executor.getStats(), 2, 3, 5, 0);
+            assertThrows(IllegalStateException.class, () -> executor.resize(null, null, 10));
+            assertThrows(IllegalArgumentException.class, () -> executor.resize(4, null, null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void forkJoin() {
+        final ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor("stealing", 2);
+        try {
+            assertEquals(2, executor.getStats().getMaxSize());
+            assertThrows(UnsupportedOperationException.class, () -> executor.resize(1, 1, null));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private static void assertStats(WebAsyncTaskPoolStats stats, int coreSize, int maxSize, int queueCapacity, int queueSize) {
+        assertEquals(coreSize, stats.getCoreSize());
+        assertEquals(maxSize, stats.getMaxSize());
+        assertEquals(queueCapacity, stats.getQueueCapacity());
+        assertEquals(queueSize, stats.getQueueSize());
+    }
+
+    private static WebAsyncThreadPoolTaskExecutor create(int size, int queueCapacity) {
+        final WebAsyncThreadPoolTaskExecutor executor = new WebAsyncThreadPoolTaskExecutor("resizable");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+
+}
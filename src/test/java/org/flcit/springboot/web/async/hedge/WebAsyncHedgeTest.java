@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.hedge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class WebAsyncHedgeTest {
+
+    @Test
+    void hedged() throws Exception {
+        final WebAsyncHedge hedge = new WebAsyncHedge(new SimpleAsyncTaskExecutor(), 0, 20);
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        assertEquals("2", hedge.submit(() -> {
+            final int call = calls.incrementAndGet();
+            if (call == 1) {
+                try {
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }
+            return String.valueOf(call);
+        }).get(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, hedge.getHedgedCount());
+        assertEquals(1, hedge.getWonCount());
+        assertEquals("fast", hedge.submit(() -> "fast").get(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(1, hedge.getHedgedCount());
+    }
+
+    @Test
+    void percentile() {
+        final WebAsyncHedge hedge = new WebAsyncHedge(new SimpleAsyncTaskExecutor(), 90, 5);
+        assertEquals(0, hedge.getDelay());
+        for (int i = 1; i <= 100; i++) {
+            hedge.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(58, hedge.getDelay());
+        for (int i = 0; i < 1024; i++) {
+            hedge.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        assertEquals(5, hedge.getDelay());
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncHedge(new SimpleAsyncTaskExecutor(), 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new WebAsyncHedge(new SimpleAsyncTaskExecutor(), 100, 10));
+    }
+
+    @Test
+    void cancelled() throws Exception {
+        final WebAsyncHedge hedge = new WebAsyncHedge(new SimpleAsyncTaskExecutor(), 50, 1);
+        for (int i = 0; i < 64; i++) {
+            final Future<String> future = hedge.submit(() -> {
+                Thread.sleep(60000);
+                return "slow";
+            });
+            Thread.sleep(10);
+            future.cancel(true);
+        }
+        assertTrue(hedge.getDelay() >= 10);
+        assertEquals(0, hedge.getHedgedCount());
+    }
+
+    @Test
+    void failure() {
+        final WebAsyncHedge hedge = new WebAsyncHedge(new SimpleAsyncTaskExecutor(), 0, 10);
+        final AtomicInteger calls = new AtomicInteger();
+        final ExecutionException exception = assertThrows(ExecutionException.class, () -> hedge.submit(() -> {
+            Thread.sleep(50);
+            throw new IOException(String.valueOf(calls.incrementAndGet()));
+        }).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertEquals(2, calls.get());
+        final WebAsyncHedge rejecting = new WebAsyncHedge(new TaskExecutorAdapter(task -> {
+            throw new TaskRejectedException("full");
+        }), 0, 10);
+        assertThrows(TaskRejectedException.class, () -> rejecting.submit(() -> "rejected"));
+    }
+
+    @Test
+    void callerRuns() throws Exception {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        try {
+            final WebAsyncHedge hedge = new WebAsyncHedge(executor, 0, 10);
+            final AtomicInteger calls = new AtomicInteger();
+            assertEquals("1", hedge.submit(() -> {
+                final int call = calls.incrementAndGet();
+                Thread.sleep(100);
+                return String.valueOf(call);
+            }).get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(0, hedge.getWonCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class AimdConcurrencyLimitTest {
+
+    @Test
+    void limit() {
+        final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10, 2, 12, 0.5, 1000L);
+        assertEquals(10, limit.getLimit());
+        limit.onSample(1000, 2, false);
+        assertEquals(10, limit.getLimit());
+        limit.onSample(1000, 5, false);
+        assertEquals(11, limit.getLimit());
+        limit.onSample(1000, 10, false);
+        limit.onSample(1000, 10, false);
+        assertEquals(12, limit.getLimit());
+        limit.onSample(1000, 10, true);
+        assertEquals(6, limit.getLimit());
+        limit.onSample(2_000_000_000L, 10, false);
+        assertEquals(3, limit.getLimit());
+        limit.onSample(1000, 10, true);
+        limit.onSample(1000, 10, true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void illegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdConcurrencyLimit(10, 0, 12, 0.5, null));
+        assertThrows(IllegalArgumentException.class, () -> new AimdConcurrencyLimit(10, 2, 1, 0.5, null));
+        assertThrows(IllegalArgumentException.class, () -> new AimdConcurrencyLimit(10, 2, 12, 1, null));
+    }
+
+}
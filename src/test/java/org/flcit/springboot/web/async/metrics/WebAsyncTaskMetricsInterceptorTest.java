@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+
+class WebAsyncTaskMetricsInterceptorTest {
+
+    private static final String EXECUTOR_NAME = "reports";
+    private static final Callable<String> CALLABLE = new WebAsyncTaskCallable<>(EXECUTOR_NAME, null, () -> "TEST");
+
+    @Test
+    void metrics() throws Exception {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final WebAsyncTaskMetricsInterceptor interceptor = new WebAsyncTaskMetricsInterceptor(registry);
+
+        NativeWebRequest request = getRequest();
+        interceptor.beforeConcurrentHandling(request, CALLABLE);
+        assertEquals(1, registry.get("web.async.task.active").tag("executor", EXECUTOR_NAME).tag("handler", "WebAsyncTaskMetricsInterceptorTest#metrics").gauge().value());
+        interceptor.preProcess(request, CALLABLE);
+        interceptor.postProcess(request, CALLABLE, "TEST");
+        interceptor.afterCompletion(request, CALLABLE);
+        assertEquals(0, registry.get("web.async.task.active").gauge().value());
+        assertEquals(1, registry.get("web.async.task.queue").timer().count());
+        assertEquals(1, registry.get("web.async.task.execution").timer().count());
+
+        request = getRequest();
+        interceptor.beforeConcurrentHandling(request, CALLABLE);
+        interceptor.preProcess(request, CALLABLE);
+        interceptor.postProcess(request, CALLABLE, new IllegalStateException());
+        interceptor.handleTimeout(request, CALLABLE);
+        interceptor.afterCompletion(request, CALLABLE);
+        assertEquals(1, registry.get("web.async.task.errors").counter().count());
+        assertEquals(1, registry.get("web.async.task.timeouts").counter().count());
+
+        request = getRequest();
+        interceptor.beforeConcurrentHandling(request, CALLABLE);
+        interceptor.postProcess(request, CALLABLE, new RejectedExecutionException());
+        interceptor.afterCompletion(request, CALLABLE);
+        assertEquals(1, registry.get("web.async.task.rejected").counter().count());
+        assertEquals(2, registry.get("web.async.task.execution").timer().count());
+        assertEquals(0, registry.get("web.async.task.active").gauge().value());
+    }
+
+    @Test
+    void completion() throws Exception {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final WebAsyncTaskMetricsInterceptor interceptor = new WebAsyncTaskMetricsInterceptor(registry);
+        final Callable<String> callable = new WebAsyncTaskCallable<String>(EXECUTOR_NAME, null, () -> "TEST") {
+            @Override
+            public boolean isCompletion() {
+                return true;
+            }
+        };
+
+        NativeWebRequest request = getRequest();
+        interceptor.beforeConcurrentHandling(request, callable);
+        interceptor.preProcess(request, callable);
+        interceptor.postProcess(request, callable, "TEST");
+        interceptor.afterCompletion(request, callable);
+        assertEquals(1, registry.get("web.async.task.completion").timer().count());
+        assertEquals(0, registry.get("web.async.task.queue").timer().count());
+        assertEquals(0, registry.get("web.async.task.execution").timer().count());
+
+        request = getRequest();
+        interceptor.beforeConcurrentHandling(request, callable);
+        interceptor.preProcess(request, callable);
+        interceptor.postProcess(request, callable, new TaskRejectedException("full"));
+        interceptor.afterCompletion(request, callable);
+        assertEquals(1, registry.get("web.async.task.rejected").counter().count());
+        assertEquals(0, registry.get("web.async.task.errors").counter().count());
+        assertEquals(0, registry.get("web.async.task.active").gauge().value());
+    }
+
+    @Test
+    void notWebAsyncTask() throws Exception {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final WebAsyncTaskMetricsInterceptor interceptor = new WebAsyncTaskMetricsInterceptor(registry);
+        final Callable<String> callable = () -> "TEST";
+        final NativeWebRequest request = getRequest();
+        interceptor.beforeConcurrentHandling(request, callable);
+        interceptor.preProcess(request, callable);
+        interceptor.postProcess(request, callable, "TEST");
+        interceptor.afterCompletion(request, callable);
+        assertNull(registry.find("web.async.task.execution").timer());
+    }
+
+    private NativeWebRequest getRequest() throws NoSuchMethodException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(this, WebAsyncTaskMetricsInterceptorTest.class.getDeclaredMethod("metrics")));
+        return new ServletWebRequest(request);
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.rejection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
+import org.flcit.springboot.web.async.service.WebAsyncTaskService;
+import org.flcit.springboot.web.async.util.AsyncTaskExecutorUtils;
+
+class WebAsyncRejectedExecutionHandlerTest {
+
+    @Test
+    void reject() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPoolTaskExecutor executor = saturated(WebAsyncRejectionPolicy.REJECT, 0, latch);
+        try {
+            final TaskRejectedException exception = assertThrows(TaskRejectedException.class, () -> executor.submit(() -> { }));
+            assertEquals(5L, assertInstanceOf(WebAsyncTaskRejectedException.class, exception.getCause()).getRetryAfter());
+            assertEquals(1, getHandler(executor).getRejectedCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void callerRuns() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPoolTaskExecutor executor = saturated(WebAsyncRejectionPolicy.CALLER_RUNS, 100, latch);
+        try {
+            final AtomicReference<Thread> thread = new AtomicReference<>();
+            executor.submit(() -> {
+                thread.set(Thread.currentThread());
+                Thread.sleep(5000);
+                return null;
+            });
+            assertSame(Thread.currentThread(), thread.get());
+            assertFalse(Thread.currentThread().isInterrupted());
+            assertEquals(1, getHandler(executor).getCallerRunsCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void waitForQueue() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPoolTaskExecutor executor = saturated(WebAsyncRejectionPolicy.WAIT, 100, latch);
+        try {
+            assertThrows(TaskRejectedException.class, () -> executor.submit(() -> { }));
+            assertEquals(1, getHandler(executor).getRejectedCount());
+            new Thread(() -> {
+                sleep(50);
+                latch.countDown();
+            }).start();
+            assertEquals("TEST", executor.submit(() -> "TEST").get(5, TimeUnit.SECONDS));
+            assertEquals(1, getHandler(executor).getWaitedCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void discardOldest() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPoolTaskExecutor executor = saturated(WebAsyncRejectionPolicy.DISCARD_OLDEST, 0, latch);
+        try {
+            final AtomicBoolean ran = new AtomicBoolean();
+            final AtomicReference<WebAsyncTaskRejectedException> discarded = new AtomicReference<>();
+            executor.getThreadPoolExecutor().getQueue().clear();
+            final Future<?> first = AsyncTaskExecutorUtils.submit(executor, () -> ran.set(true), discarded::set);
+            final Future<?> second = executor.submit(() -> ran.set(true));
+            assertTrue(first.isCancelled());
+            assertEquals(5L, discarded.get().getRetryAfter());
+            executor.execute(() -> { });
+            assertTrue(second.isCancelled());
+            assertEquals(2, getHandler(executor).getShedCount());
+            assertEquals(1, executor.getThreadPoolExecutor().getQueue().size());
+            latch.countDown();
+            executor.shutdown();
+            assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+            assertFalse(ran.get());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void discardOldestPriority() throws Exception {
+        final PriorityThreadPoolTaskExecutor executor = new PriorityThreadPoolTaskExecutor("priority", 60000);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(2);
+        executor.setRejectedExecutionHandler(new WebAsyncRejectedExecutionHandler("priority", WebAsyncRejectionPolicy.DISCARD_OLDEST, null, 0));
+        executor.initialize();
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            executor.execute(() -> {
+                started.countDown();
+                await(latch);
+            });
+            started.await();
+            final AtomicReference<WebAsyncTaskRejectedException> discarded = new AtomicReference<>();
+            final Future<?> low = AsyncTaskExecutorUtils.submit(executor.withPriority(-1), () -> { }, discarded::set);
+            final Future<?> high = executor.withPriority(5).submit(() -> { });
+            executor.submit(() -> { });
+            assertTrue(low.isCancelled());
+            assertFalse(high.isCancelled());
+            assertInstanceOf(WebAsyncTaskRejectedException.class, discarded.get());
+            latch.countDown();
+            high.get(5, TimeUnit.SECONDS);
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void discardOldestTask() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ThreadPoolTaskExecutor executor = saturated(WebAsyncRejectionPolicy.DISCARD_OLDEST, 0, latch);
+        try {
+            final MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+            servletRequest.setAsyncSupported(true);
+            final WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(servletRequest);
+            asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(servletRequest, new MockHttpServletResponse()));
+            asyncManager.startCallableProcessing(new WebAsyncTaskService().send(null, executor, () -> "ran"));
+            assertFalse(asyncManager.hasConcurrentResult());
+            executor.submit(() -> { });
+            assertTrue(asyncManager.hasConcurrentResult());
+            assertInstanceOf(WebAsyncTaskRejectedException.class, asyncManager.getConcurrentResult());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void resolver() {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final WebAsyncRejectedExceptionResolver resolver = new WebAsyncRejectedExceptionResolver();
+        assertNull(resolver.resolveException(new MockHttpServletRequest(), response, null,
+                new TaskRejectedException("rejected", new WebAsyncTaskRejectedException("saturated", 5L))));
+        assertEquals("5", response.getHeader(HttpHeaders.RETRY_AFTER));
+        final MockHttpServletResponse noRetryResponse = new MockHttpServletResponse();
+        assertNull(resolver.resolveException(new MockHttpServletRequest(), noRetryResponse, null, new WebAsyncTaskRejectedException("saturated")));
+        assertFalse(noRetryResponse.containsHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.containsHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static ThreadPoolTaskExecutor saturated(WebAsyncRejectionPolicy policy, long budget, CountDownLatch latch) throws InterruptedException {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new WebAsyncRejectedExecutionHandler("test", policy, 5L, budget));
+        executor.initialize();
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        executor.execute(() -> { });
+        return executor;
+    }
+
+    private static WebAsyncRejectedExecutionHandler getHandler(ThreadPoolTaskExecutor executor) {
+        return (WebAsyncRejectedExecutionHandler) executor.getThreadPoolExecutor().getRejectedExecutionHandler();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
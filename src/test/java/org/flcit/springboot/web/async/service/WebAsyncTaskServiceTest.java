@@ -17,20 +17,60 @@
 package org.flcit.springboot.web.async.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.flcit.commons.core.functional.runnable.RunnableException;
 import org.flcit.springboot.commons.test.MockitoBaseTest;
+import org.flcit.springboot.web.async.bulkhead.WebAsyncBulkhead;
+import org.flcit.springboot.web.async.executor.PriorityThreadPoolTaskExecutor;
 import org.flcit.springboot.web.async.executor.PublicSimpleAsyncTaskExecutor;
 import org.flcit.springboot.web.async.executor.PublicSimpleAsyncTaskExecutorImplements;
 import org.flcit.springboot.web.async.executor.PublicThreadPoolTaskExecutor;
 import org.flcit.springboot.web.async.executor.PublicThreadPoolTaskExecutorImplements;
+import org.flcit.springboot.web.async.executor.WebAsyncTaskRejectedException;
 
 class WebAsyncTaskServiceTest implements MockitoBaseTest {
 
@@ -65,11 +105,275 @@ class WebAsyncTaskServiceTest implements MockitoBaseTest {
         
     }
 
+    @Test
+    void sendDefaultExecutor() throws Exception {
+        assertAsyncTask(service.send(5000L, () -> VALUE), 5000L, null, VALUE);
+        assertAsyncTask(service.sendThrows(5000L, mock(RunnableException.class)), 5000L, null, null);
+        final WebAsyncTaskService defaultExecutorService = new WebAsyncTaskService(simpleAsyncTaskExecutorImplements);
+        assertAsyncTask(defaultExecutorService.send((Long) null, () -> VALUE), simpleAsyncTaskExecutorImplements.getTimeout(), simpleAsyncTaskExecutorImplements, VALUE);
+    }
+
+    @Test
+    void sendCompletable() throws Exception {
+        assertEquals(VALUE, service.sendCompletable(null, threadPoolTaskExecutor, () -> CompletableFuture.completedFuture(VALUE)).get());
+        final CompletableFuture<String> timeout = service.sendCompletable(100L, threadPoolTaskExecutor, CompletableFuture::new);
+        assertInstanceOf(AsyncRequestTimeoutException.class, assertThrows(ExecutionException.class, timeout::get).getCause());
+        final CompletableFuture<Object> error = service.sendCompletable(null, threadPoolTaskExecutor, () -> { throw new IllegalStateException(); });
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, error::get).getCause());
+    }
+
+    @Test
+    void sendPriority() throws Exception {
+        assertAsyncTask(service.send(5000L, simpleAsyncTaskExecutor, 5, () -> VALUE), 5000L, simpleAsyncTaskExecutor, VALUE);
+        final PriorityThreadPoolTaskExecutor priorityExecutor = new PriorityThreadPoolTaskExecutor("priority", 1000);
+        priorityExecutor.setTimeout(5000L);
+        priorityExecutor.initialize();
+        try {
+            final WebAsyncTask<String> task = service.send(null, priorityExecutor, 5, () -> VALUE);
+            assertEquals(5000L, task.getTimeout());
+            assertNotSame(priorityExecutor, getTarget(task.getExecutor()));
+            assertEquals("priority", ((WebAsyncTaskCallable<String>) task.getCallable()).getExecutorName());
+            assertEquals(VALUE, task.getExecutor().submit(task.getCallable()).get());
+        } finally {
+            priorityExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void sendBulkhead() throws Exception {
+        final WebAsyncBulkhead bulkhead = new WebAsyncBulkhead("test", 1);
+        final WebAsyncTask<String> task = service.send(5000L, simpleAsyncTaskExecutor, bulkhead, "tenant", () -> VALUE);
+        assertEquals(5000L, task.getTimeout());
+        assertEquals(1, bulkhead.getInFlight("tenant"));
+        assertThrows(WebAsyncTaskRejectedException.class, () -> service.send(5000L, simpleAsyncTaskExecutor, bulkhead, "tenant", () -> VALUE));
+        assertAsyncTask(service.send(null, simpleAsyncTaskExecutor, bulkhead, "other", () -> VALUE), null, simpleAsyncTaskExecutor, VALUE);
+        assertEquals(VALUE, task.getCallable().call());
+        assertEquals(0, bulkhead.getInFlight("tenant"));
+        assertEquals(0, bulkhead.getInFlight("other"));
+        assertEquals(1, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    void sendCoalesced() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Callable<String> callable = () -> {
+            calls.incrementAndGet();
+            latch.await(5, TimeUnit.SECONDS);
+            return VALUE;
+        };
+        final WebAsyncTask<String> first = service.sendCoalesced(null, threadPoolTaskExecutor, "key", callable);
+        final WebAsyncTask<String> second = service.sendCoalesced(5000L, threadPoolTaskExecutor, "key", callable);
+        assertEquals(5000L, second.getTimeout());
+        final Future<?> dispatch = second.getExecutor().submit(() -> { });
+        assertFalse(dispatch.isDone());
+        latch.countDown();
+        assertEquals(VALUE, first.getCallable().call());
+        assertEquals(VALUE, second.getCallable().call());
+        dispatch.get(5, TimeUnit.SECONDS);
+        assertEquals(1, calls.get());
+        assertEquals(VALUE, service.sendCoalesced(null, threadPoolTaskExecutor, "key", callable).getCallable().call());
+        assertEquals(2, calls.get());
+        final WebAsyncTask<Object> error = service.sendCoalesced(null, threadPoolTaskExecutor, "error", () -> { throw new IllegalStateException(); });
+        assertThrows(IllegalStateException.class, error.getCallable()::call);
+    }
+
+    @Test
+    void sendCompleted() throws Exception {
+        final WebAsyncTask<String> task = service.sendCompleted(null, threadPoolTaskExecutorImplements, VALUE);
+        assertEquals(threadPoolTaskExecutorImplements.getTimeout(), task.getTimeout());
+        assertTrue(task.getExecutor().submit(() -> { }).isDone());
+        assertEquals(VALUE, task.getCallable().call());
+        assertEquals(PublicThreadPoolTaskExecutorImplements.BEAN_NAME, ((WebAsyncTaskCallable<String>) task.getCallable()).getExecutorName());
+    }
+
+    @Test
+    void sendAll() throws Exception {
+        final CountDownLatch never = new CountDownLatch(1);
+        final List<Callable<String>> callables = Arrays.asList(
+                () -> { Thread.sleep(100); return "slow"; },
+                () -> "fast",
+                () -> { never.await(); return "never"; },
+                () -> { throw new IllegalStateException(); });
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+        try {
+            assertEquals(Arrays.asList("a", "b"), service.sendAll(null, executor, WebAsyncFanOut.all(), Arrays.asList(() -> "a", () -> "b")).getCallable().call());
+            assertThrows(IllegalStateException.class, service.sendAll(null, executor, WebAsyncFanOut.all(), callables).getCallable()::call);
+            assertEquals(Arrays.asList("fast", "slow"), service.sendAll(null, executor, WebAsyncFanOut.first(2), callables).getCallable().call());
+            assertThrows(IllegalStateException.class, service.sendAll(null, executor, WebAsyncFanOut.first(4), callables).getCallable()::call);
+            final WebAsyncTask<List<String>> partial = service.sendAll(5000L, executor, WebAsyncFanOut.partial(500), callables);
+            assertEquals(5000L, partial.getTimeout());
+            assertEquals(Arrays.asList("slow", "fast", null, null), partial.getCallable().call());
+            assertThrows(IllegalArgumentException.class, service.sendAll(null, executor, WebAsyncFanOut.first(5), callables).getCallable()::call);
+        } finally {
+            executor.shutdown();
+        }
+        simpleAsyncTaskExecutorImplements.setTimeout(5000L);
+        final WebAsyncTask<List<String>> pool = service.sendAll(simpleAsyncTaskExecutorImplements, WebAsyncFanOut.all(), Arrays.asList(() -> "a"));
+        assertEquals(5000L, pool.getTimeout());
+        assertEquals(Arrays.asList("a"), pool.getCallable().call());
+        assertThrows(IllegalArgumentException.class, () -> WebAsyncFanOut.first(0));
+        assertThrows(IllegalArgumentException.class, () -> WebAsyncFanOut.partial(0));
+    }
+
+    @Test
+    void sendDeferred() throws Exception {
+        final DeferredResult<String> handlerResult = new DeferredResult<>();
+        final DeferredResult<String> result = service.sendDeferred(5000L, threadPoolTaskExecutor, () -> handlerResult);
+        final CountDownLatch latch = new CountDownLatch(1);
+        result.setResultHandler(value -> latch.countDown());
+        handlerResult.setResult(VALUE);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(VALUE, result.getResult());
+    }
+
+    @Test
+    void sendStreaming() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            final StreamingResponseBody body = outputStream -> outputStream.write(1);
+            assertSame(body, service.sendStreaming(threadPoolTaskExecutor, body));
+            assertSame(threadPoolTaskExecutor, ReflectionTestUtils.getField(WebAsyncUtils.getAsyncManager(request), "taskExecutor"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void sendStreamingTimeout() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            final StreamingResponseBody body = outputStream -> outputStream.write(1);
+            assertSame(body, service.sendStreaming(5000L, threadPoolTaskExecutor, body));
+            final WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+            asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+            asyncManager.startCallableProcessing(() -> null);
+            assertEquals(5000L, request.getAsyncContext().getTimeout());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void sendEmitter() throws Exception {
+        final RecordingEmitter emitter = service.sendEmitter(threadPoolTaskExecutor, new RecordingEmitter(), () -> { });
+        final RecordingEmitter sending = new RecordingEmitter();
+        service.sendEmitter(threadPoolTaskExecutor, sending, () -> {
+            sending.send("a");
+            sending.send("b");
+        });
+        final RecordingEmitter failing = service.sendEmitter(threadPoolTaskExecutor, new RecordingEmitter(), () -> { throw new IllegalStateException(); });
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(sending.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("a", "b"), sending.sent);
+        assertTrue(failing.completed.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failing.sent.get(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void sendEmitterCallbacks() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicBoolean timedOut = new AtomicBoolean();
+        final AtomicReference<Throwable> failed = new AtomicReference<>();
+        final ResponseBodyEmitter emitter = service.sendEmitter(threadPoolTaskExecutor, new ResponseBodyEmitter(), () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }, () -> timedOut.set(true), failed::set);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ((Runnable) ReflectionTestUtils.getField(emitter, "timeoutCallback")).run();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(timedOut.get());
+        final IllegalStateException error = new IllegalStateException();
+        ((Consumer<Throwable>) ReflectionTestUtils.getField(emitter, "errorCallback")).accept(error);
+        assertSame(error, failed.get());
+    }
+
+    @Test
+    void sendFile() throws Exception {
+        final Path file = Files.createTempFile("web-async", ".txt");
+        try {
+            Files.write(file, "0123456789".getBytes(StandardCharsets.US_ASCII));
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            service.sendFile(5000L, threadPoolTaskExecutor, new MockHttpServletRequest(), response, file).getCallable().call();
+            assertEquals(200, response.getStatus());
+            assertEquals("text/plain", response.getContentType());
+            assertEquals("0123456789", response.getContentAsString());
+
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+            response = new MockHttpServletResponse();
+            service.sendFile(null, threadPoolTaskExecutor, request, response, file).getCallable().call();
+            assertEquals(206, response.getStatus());
+            assertEquals("bytes 2-4/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+            assertEquals("234", response.getContentAsString());
+
+            response = new MockHttpServletResponse();
+            service.sendFile(null, threadPoolTaskExecutor, request, response, file, 5, 5).getCallable().call();
+            assertEquals("bytes 2-4/5", response.getHeader(HttpHeaders.CONTENT_RANGE));
+            assertEquals("789", response.getContentAsString());
+
+            request = new MockHttpServletRequest();
+            request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+            response = new MockHttpServletResponse();
+            service.sendFile(null, threadPoolTaskExecutor, request, response, file).getCallable().call();
+            assertEquals(416, response.getStatus());
+            assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+
+            request = new MockHttpServletRequest();
+            request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+            response = new MockHttpServletResponse();
+            service.sendFile(null, threadPoolTaskExecutor, request, response, file).getCallable().call();
+            assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+            assertEquals(10L, response.getContentLengthLong());
+            assertEquals(0, response.getContentAsByteArray().length);
+
+            assertThrows(IllegalArgumentException.class, () -> service.sendFile(null, threadPoolTaskExecutor, new MockHttpServletRequest(), new MockHttpServletResponse(), file, 5, 10));
+            assertThrows(IllegalArgumentException.class, () -> service.sendFile(null, threadPoolTaskExecutor, new MockHttpServletRequest(), new MockHttpServletResponse(), file, 1, Long.MAX_VALUE));
+            assertThrows(IllegalArgumentException.class, () -> service.sendFile(null, threadPoolTaskExecutor, new MockHttpServletRequest(), new MockHttpServletResponse(), file.resolveSibling(file.getFileName() + ".missing"), 0, 1));
+            assertThrows(IllegalArgumentException.class, () -> service.sendFile(null, threadPoolTaskExecutor, new MockHttpServletRequest(), new MockHttpServletResponse(), file, -1, 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static final class RecordingEmitter extends ResponseBodyEmitter {
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        @Override
+        public void send(Object object) {
+            sent.add(object);
+        }
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            sent.add(ex);
+            completed.countDown();
+        }
+    }
+
     private static final <T> void assertAsyncTask(WebAsyncTask<T> asyncTask, Long timeout, AsyncTaskExecutor executor, T value) throws Exception {
         assertEquals(timeout, asyncTask.getTimeout());
         asyncTask.setBeanFactory(beanFactory);
-        assertEquals(executor, asyncTask.getExecutor());
+        assertEquals(executor, getTarget(asyncTask.getExecutor()));
         assertEquals(value, asyncTask.getCallable().call());
     }
 
+    private static AsyncTaskExecutor getTarget(AsyncTaskExecutor executor) {
+        return executor instanceof DiscardableTaskExecutor ? ((DiscardableTaskExecutor) executor).getTarget() : executor;
+    }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.async.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.servlet.DispatcherType;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import org.flcit.springboot.web.async.service.WebAsyncTaskCallable;
+import org.flcit.springboot.web.async.trace.WebAsyncTaskTrace.Phase;
+
+class WebAsyncTaskTraceInterceptorTest {
+
+    @Test
+    void trace() throws Exception {
+        final List<Object> events = new ArrayList<>();
+        final WebAsyncTaskTraceInterceptor interceptor = new WebAsyncTaskTraceInterceptor(events::add, true);
+        final MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        final NativeWebRequest request = new ServletWebRequest(servletRequest);
+        final Callable<String> task = new WebAsyncTaskCallable<>("test", null, () -> "TEST");
+        interceptor.beforeConcurrentHandling(request, task);
+        final WebAsyncTaskTrace trace = WebAsyncTaskTraceInterceptor.getTrace(request);
+        assertEquals("test", trace.getExecutorName());
+        assertNull(trace.getHandler());
+        assertEquals(-1, trace.getDuration(Phase.START_ASYNC, Phase.START));
+        interceptor.preProcess(request, task);
+        interceptor.postProcess(request, task, "TEST");
+        assertTrue(trace.getDuration(Phase.START_ASYNC, Phase.START) >= 0);
+        assertTrue(trace.getDuration(Phase.START, Phase.END) >= 0);
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(servletRequest, response, null));
+        assertEquals(0, trace.getTime(Phase.DISPATCH));
+        assertNull(response.getHeader(WebAsyncTaskTraceInterceptor.SERVER_TIMING_HEADER));
+        servletRequest.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(servletRequest, response, null));
+        assertNotEquals(0, trace.getTime(Phase.DISPATCH));
+        final String serverTiming = response.getHeader(WebAsyncTaskTraceInterceptor.SERVER_TIMING_HEADER);
+        assertTrue(serverTiming.matches("queue;dur=\\d+\\.\\d{3}, execution;dur=\\d+\\.\\d{3}, dispatch;dur=\\d+\\.\\d{3}"), serverTiming);
+
+        interceptor.afterCompletion(request, task);
+        assertTrue(trace.getDuration(Phase.DISPATCH, Phase.COMMIT) >= 0);
+        assertEquals(Collections.singletonList(trace), events);
+        assertTrue(trace.toString().startsWith("WebAsyncTaskTrace[executor=test, queue="));
+    }
+
+    @Test
+    void notTraced() throws Exception {
+        final WebAsyncTaskTraceInterceptor interceptor = new WebAsyncTaskTraceInterceptor(null, false);
+        final MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        final NativeWebRequest request = new ServletWebRequest(servletRequest);
+        final Callable<String> task = () -> "TEST";
+        interceptor.beforeConcurrentHandling(request, task);
+        interceptor.preProcess(request, task);
+        assertNull(WebAsyncTaskTraceInterceptor.getTrace(request));
+        interceptor.afterCompletion(request, task);
+
+        final Callable<String> timedOut = new WebAsyncTaskCallable<>("test", null, () -> "TEST");
+        interceptor.beforeConcurrentHandling(request, timedOut);
+        servletRequest.setDispatcherType(DispatcherType.ASYNC);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(servletRequest, response, null));
+        assertNull(response.getHeader(WebAsyncTaskTraceInterceptor.SERVER_TIMING_HEADER));
+        assertEquals("", WebAsyncTaskTraceInterceptor.getTrace(request).toServerTiming());
+    }
+
+}
@@ -16,8 +16,10 @@
 
 package org.flcit.springboot.web.async.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,12 @@ import org.flcit.springboot.web.async.annotation.aspect.WebAsyncTaskResponse;
 
 class WebAsyncTaskUtilsTest {
 
+    @Test
+    void send() {
+        assertSame(WebAsyncTaskUtils.send(), WebAsyncTaskUtils.send(null));
+        assertEquals("TEST", ((WebAsyncTaskResponse<?>) WebAsyncTaskUtils.send("TEST")).getResult());
+    }
+
     @Test
     void illegalStateException() {
         final WebAsyncTask<Void> webAsyncTask = WebAsyncTaskUtils.send();